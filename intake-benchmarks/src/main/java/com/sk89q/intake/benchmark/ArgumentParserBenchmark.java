@@ -0,0 +1,89 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.FlagException;
+import com.sk89q.intake.parametric.ArgumentParser;
+import com.sk89q.intake.parametric.ProvisionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ArgumentParser#parseArguments(com.sk89q.intake.argument.CommandArgs)}
+ * for a parser with a mix of boolean flags and string parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentParserBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int argumentCount;
+
+    @Param({"0", "50", "100"})
+    private int flagPercentage;
+
+    private ArgumentParser parser;
+    private CommandContext context;
+
+    @Setup
+    public void setUp() throws FlagException {
+        int flagCount = Fixtures.getFlagCount(argumentCount, flagPercentage);
+
+        ArgumentParser.Builder builder = new ArgumentParser.Builder(Fixtures.createInjector());
+        for (int i = 0; i < argumentCount; i++) {
+            if (i < flagCount) {
+                builder.addParameter(boolean.class, ImmutableList.of(Fixtures.createSwitch(Fixtures.getFlag(i))));
+            } else {
+                builder.addParameter(String.class);
+            }
+        }
+        parser = builder.build();
+
+        context = new CommandContext.Builder()
+                .setArguments(Fixtures.createArguments(argumentCount, flagPercentage))
+                .setExpectedValueFlags(parser.getValueFlags())
+                .build();
+    }
+
+    @Benchmark
+    public Object[] parseArguments() throws ArgumentException, ProvisionException {
+        return parser.parseArguments(Arguments.viewOf(context));
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.FlagException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of a {@link CommandContext}, which tokenizes the
+ * input and parses flags.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandContextBenchmark {
+
+    private static final Set<Character> VALUE_FLAGS = ImmutableSet.of('v');
+
+    @Param({"1", "4", "16"})
+    private int argumentCount;
+
+    @Param({"0", "50", "100"})
+    private int flagPercentage;
+
+    private String input;
+
+    @Setup
+    public void setUp() {
+        input = Fixtures.createArguments(argumentCount, flagPercentage);
+    }
+
+    @Benchmark
+    public CommandContext build() throws FlagException {
+        return new CommandContext.Builder()
+                .setArguments(input)
+                .setExpectedValueFlags(VALUE_FLAGS)
+                .build();
+    }
+
+}
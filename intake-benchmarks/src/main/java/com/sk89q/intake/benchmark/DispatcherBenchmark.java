@@ -0,0 +1,77 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.InvocationCommandException;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.Dispatcher;
+import com.sk89q.intake.util.auth.AuthorizationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Dispatcher#call(String, Namespace, List)} through a tree of
+ * nested dispatchers down to a parametric command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatcherBenchmark {
+
+    private static final List<String> NO_PARENTS = ImmutableList.of();
+
+    @Param({"1", "2", "4"})
+    private int depth;
+
+    @Param({"1", "16", "128"})
+    private int aliasCount;
+
+    private Dispatcher dispatcher;
+    private String input;
+
+    @Setup
+    public void setUp() {
+        dispatcher = Fixtures.createGraph(depth, aliasCount).getDispatcher();
+        input = Fixtures.createPath(depth, "42 \"some text\" -f");
+    }
+
+    @Benchmark
+    public boolean call() throws CommandException, InvocationCommandException, AuthorizationException {
+        return dispatcher.call(input, new Namespace(), NO_PARENTS);
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.ProvisionException;
+import com.sk89q.intake.parametric.provider.EnumProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookup and completion of {@link EnumProvider} on a large enum.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumProviderBenchmark {
+
+    private static final List<Annotation> NO_MODIFIERS = ImmutableList.of();
+
+    @State(Scope.Benchmark)
+    public static class LookupState {
+
+        @Param({"oak_log", "black_shulker_box", "blackshulkerbox"})
+        private String name;
+
+        private final EnumProvider<Material> provider = new EnumProvider<Material>(Material.class);
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class CompletionState {
+
+        @Param({"", "b", "black_"})
+        private String prefix;
+
+        private final EnumProvider<Material> provider = new EnumProvider<Material>(Material.class);
+
+    }
+
+    @Benchmark
+    public Material get(LookupState state) throws ArgumentException, ProvisionException {
+        return state.provider.get(Arguments.of(state.name), NO_MODIFIERS);
+    }
+
+    @Benchmark
+    public List<String> getSuggestions(CompletionState state) {
+        return state.provider.getSuggestions(state.prefix, new Namespace());
+    }
+
+}
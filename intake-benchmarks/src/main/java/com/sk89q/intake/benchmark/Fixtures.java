@@ -0,0 +1,196 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.sk89q.intake.Command;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.fluent.CommandGraph;
+import com.sk89q.intake.fluent.DispatcherNode;
+import com.sk89q.intake.parametric.Injector;
+import com.sk89q.intake.parametric.ParametricBuilder;
+import com.sk89q.intake.parametric.annotation.Switch;
+import com.sk89q.intake.parametric.provider.PrimitivesModule;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Shared fixtures used to build command trees and inputs for the benchmarks.
+ */
+final class Fixtures {
+
+    /**
+     * The alias of the group that leads to the next level of the tree.
+     */
+    static final String GROUP_ALIAS = "sub";
+
+    /**
+     * The alias of the command at the deepest level of the tree.
+     */
+    static final String LEAF_ALIAS = "leaf";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Create an injector with the primitive bindings installed.
+     *
+     * @return The injector
+     */
+    static Injector createInjector() {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        return injector;
+    }
+
+    /**
+     * Build a command graph that is {@code depth} groups deep, where every
+     * level has {@code aliasCount} sibling commands next to the group that
+     * leads to the next level.
+     *
+     * @param depth The number of nested groups
+     * @param aliasCount The number of sibling commands on every level
+     * @return The command graph
+     */
+    static CommandGraph createGraph(int depth, int aliasCount) {
+        ParametricBuilder builder = new ParametricBuilder(createInjector());
+        CommandCallable leaf = createLeaf(builder);
+
+        CommandGraph graph = new CommandGraph().builder(builder);
+        DispatcherNode node = graph.commands();
+        for (int level = 0; level < depth; level++) {
+            for (int i = 0; i < aliasCount; i++) {
+                node.register(leaf, "cmd" + i);
+            }
+            node = node.group(GROUP_ALIAS);
+        }
+        node.register(leaf, LEAF_ALIAS);
+
+        return graph;
+    }
+
+    /**
+     * Build the input that walks down a graph created by
+     * {@link #createGraph(int, int)} and invokes the leaf command.
+     *
+     * @param depth The number of nested groups
+     * @param arguments The arguments given to the leaf command
+     * @return The input
+     */
+    static String createPath(int depth, String arguments) {
+        StringBuilder builder = new StringBuilder();
+        for (int level = 0; level < depth; level++) {
+            builder.append(GROUP_ALIAS).append(' ');
+        }
+        builder.append(LEAF_ALIAS);
+        if (!arguments.isEmpty()) {
+            builder.append(' ').append(arguments);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Build an argument string of {@code argumentCount} arguments of which
+     * {@code flagPercentage} percent are boolean flags and the rest are
+     * quoted arguments consisting of two words.
+     *
+     * @param argumentCount The number of arguments
+     * @param flagPercentage The share of flags, from 0 to 100
+     * @return The argument string
+     */
+    static String createArguments(int argumentCount, int flagPercentage) {
+        int flagCount = getFlagCount(argumentCount, flagPercentage);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < argumentCount; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            if (i < flagCount) {
+                builder.append('-').append(getFlag(i));
+            } else {
+                builder.append("\"value ").append(i).append('"');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Get the number of flags in arguments created by {@link #createArguments(int, int)}.
+     *
+     * @param argumentCount The number of arguments
+     * @param flagPercentage The share of flags, from 0 to 100
+     * @return The number of flags
+     */
+    static int getFlagCount(int argumentCount, int flagPercentage) {
+        return argumentCount * flagPercentage / 100;
+    }
+
+    /**
+     * Get the flag character used for the flag at the given index.
+     *
+     * @param index The index of the flag
+     * @return The flag character
+     */
+    static char getFlag(int index) {
+        return (char) ('a' + index % 26);
+    }
+
+    /**
+     * Create a {@link Switch} annotation instance for the given flag.
+     *
+     * @param flag The flag
+     * @return The annotation
+     */
+    static Switch createSwitch(final char flag) {
+        return new Switch() {
+            @Override
+            public char value() {
+                return flag;
+            }
+
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return Switch.class;
+            }
+        };
+    }
+
+    private static CommandCallable createLeaf(ParametricBuilder builder) {
+        try {
+            Method method = LeafCommands.class.getMethod("leaf", int.class, String.class, boolean.class);
+            return builder.build(new LeafCommands(), method);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Holds the command invoked at the end of the benchmarked command trees.
+     */
+    public static final class LeafCommands {
+
+        @Command(aliases = LEAF_ALIAS, desc = "The command at the end of the tree")
+        public void leaf(int number, String text, @Switch('f') boolean flag) {
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.InvocationCommandException;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.ParametricBuilder;
+import com.sk89q.intake.parametric.annotation.Switch;
+import com.sk89q.intake.util.auth.AuthorizationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares invoking command methods through method handles with invoking
+ * them through reflection, as selected by
+ * {@link ParametricBuilder#setUseMethodHandles(boolean)}, with and without
+ * {@link ParametricBuilder#setPoolInvocationState(boolean) pooled} invocation
+ * state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    private static final List<String> PARENTS = ImmutableList.of("cmd");
+
+    @Param({"true", "false"})
+    private boolean useMethodHandles;
+
+    @Param({"false", "true"})
+    private boolean poolInvocationState;
+
+    private CommandCallable noArguments;
+    private CommandCallable primitiveArguments;
+
+    @Setup
+    public void setUp() throws Exception {
+        ParametricBuilder builder = new ParametricBuilder(Fixtures.createInjector());
+        builder.setUseMethodHandles(useMethodHandles);
+        builder.setPoolInvocationState(poolInvocationState);
+        InvokedCommands commands = new InvokedCommands();
+        noArguments = builder.build(commands, InvokedCommands.class.getMethod("none"));
+        primitiveArguments = builder.build(commands, InvokedCommands.class.getMethod("primitives", int.class, double.class, boolean.class));
+    }
+
+    @Benchmark
+    public boolean callWithoutArguments() throws CommandException, InvocationCommandException, AuthorizationException {
+        return noArguments.call("", new Namespace(), PARENTS);
+    }
+
+    @Benchmark
+    public boolean callWithPrimitiveArguments() throws CommandException, InvocationCommandException, AuthorizationException {
+        return primitiveArguments.call("42 1.5 -f", new Namespace(), PARENTS);
+    }
+
+    /**
+     * Holds the commands that are invoked by the benchmark.
+     */
+    public static final class InvokedCommands {
+
+        @Command(aliases = "none", desc = "A command without arguments")
+        public void none() {
+        }
+
+        @Command(aliases = "primitives", desc = "A command with primitive arguments")
+        public void primitives(int number, double fraction, @Switch('f') boolean flag) {
+        }
+
+    }
+
+}
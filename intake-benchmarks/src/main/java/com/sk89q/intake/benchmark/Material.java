@@ -0,0 +1,140 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+/**
+ * A large enum resembling a list of block types, used to benchmark enum lookup.
+ */
+public enum Material {
+
+    OAK_LOG, OAK_WOOD, OAK_PLANKS, OAK_SLAB,
+    OAK_STAIRS, OAK_FENCE, OAK_FENCE_GATE, OAK_DOOR,
+    OAK_TRAPDOOR, OAK_BUTTON, OAK_PRESSURE_PLATE, OAK_SIGN,
+    OAK_HANGING_SIGN, OAK_LEAVES, OAK_SAPLING, OAK_BOAT,
+    SPRUCE_LOG, SPRUCE_WOOD, SPRUCE_PLANKS, SPRUCE_SLAB,
+    SPRUCE_STAIRS, SPRUCE_FENCE, SPRUCE_FENCE_GATE, SPRUCE_DOOR,
+    SPRUCE_TRAPDOOR, SPRUCE_BUTTON, SPRUCE_PRESSURE_PLATE, SPRUCE_SIGN,
+    SPRUCE_HANGING_SIGN, SPRUCE_LEAVES, SPRUCE_SAPLING, SPRUCE_BOAT,
+    BIRCH_LOG, BIRCH_WOOD, BIRCH_PLANKS, BIRCH_SLAB,
+    BIRCH_STAIRS, BIRCH_FENCE, BIRCH_FENCE_GATE, BIRCH_DOOR,
+    BIRCH_TRAPDOOR, BIRCH_BUTTON, BIRCH_PRESSURE_PLATE, BIRCH_SIGN,
+    BIRCH_HANGING_SIGN, BIRCH_LEAVES, BIRCH_SAPLING, BIRCH_BOAT,
+    JUNGLE_LOG, JUNGLE_WOOD, JUNGLE_PLANKS, JUNGLE_SLAB,
+    JUNGLE_STAIRS, JUNGLE_FENCE, JUNGLE_FENCE_GATE, JUNGLE_DOOR,
+    JUNGLE_TRAPDOOR, JUNGLE_BUTTON, JUNGLE_PRESSURE_PLATE, JUNGLE_SIGN,
+    JUNGLE_HANGING_SIGN, JUNGLE_LEAVES, JUNGLE_SAPLING, JUNGLE_BOAT,
+    ACACIA_LOG, ACACIA_WOOD, ACACIA_PLANKS, ACACIA_SLAB,
+    ACACIA_STAIRS, ACACIA_FENCE, ACACIA_FENCE_GATE, ACACIA_DOOR,
+    ACACIA_TRAPDOOR, ACACIA_BUTTON, ACACIA_PRESSURE_PLATE, ACACIA_SIGN,
+    ACACIA_HANGING_SIGN, ACACIA_LEAVES, ACACIA_SAPLING, ACACIA_BOAT,
+    DARK_OAK_LOG, DARK_OAK_WOOD, DARK_OAK_PLANKS, DARK_OAK_SLAB,
+    DARK_OAK_STAIRS, DARK_OAK_FENCE, DARK_OAK_FENCE_GATE, DARK_OAK_DOOR,
+    DARK_OAK_TRAPDOOR, DARK_OAK_BUTTON, DARK_OAK_PRESSURE_PLATE, DARK_OAK_SIGN,
+    DARK_OAK_HANGING_SIGN, DARK_OAK_LEAVES, DARK_OAK_SAPLING, DARK_OAK_BOAT,
+    MANGROVE_LOG, MANGROVE_WOOD, MANGROVE_PLANKS, MANGROVE_SLAB,
+    MANGROVE_STAIRS, MANGROVE_FENCE, MANGROVE_FENCE_GATE, MANGROVE_DOOR,
+    MANGROVE_TRAPDOOR, MANGROVE_BUTTON, MANGROVE_PRESSURE_PLATE, MANGROVE_SIGN,
+    MANGROVE_HANGING_SIGN, MANGROVE_LEAVES, MANGROVE_SAPLING, MANGROVE_BOAT,
+    CHERRY_LOG, CHERRY_WOOD, CHERRY_PLANKS, CHERRY_SLAB,
+    CHERRY_STAIRS, CHERRY_FENCE, CHERRY_FENCE_GATE, CHERRY_DOOR,
+    CHERRY_TRAPDOOR, CHERRY_BUTTON, CHERRY_PRESSURE_PLATE, CHERRY_SIGN,
+    CHERRY_HANGING_SIGN, CHERRY_LEAVES, CHERRY_SAPLING, CHERRY_BOAT,
+    CRIMSON_LOG, CRIMSON_WOOD, CRIMSON_PLANKS, CRIMSON_SLAB,
+    CRIMSON_STAIRS, CRIMSON_FENCE, CRIMSON_FENCE_GATE, CRIMSON_DOOR,
+    CRIMSON_TRAPDOOR, CRIMSON_BUTTON, CRIMSON_PRESSURE_PLATE, CRIMSON_SIGN,
+    CRIMSON_HANGING_SIGN, CRIMSON_LEAVES, CRIMSON_SAPLING, CRIMSON_BOAT,
+    WARPED_LOG, WARPED_WOOD, WARPED_PLANKS, WARPED_SLAB,
+    WARPED_STAIRS, WARPED_FENCE, WARPED_FENCE_GATE, WARPED_DOOR,
+    WARPED_TRAPDOOR, WARPED_BUTTON, WARPED_PRESSURE_PLATE, WARPED_SIGN,
+    WARPED_HANGING_SIGN, WARPED_LEAVES, WARPED_SAPLING, WARPED_BOAT,
+    BAMBOO_LOG, BAMBOO_WOOD, BAMBOO_PLANKS, BAMBOO_SLAB,
+    BAMBOO_STAIRS, BAMBOO_FENCE, BAMBOO_FENCE_GATE, BAMBOO_DOOR,
+    BAMBOO_TRAPDOOR, BAMBOO_BUTTON, BAMBOO_PRESSURE_PLATE, BAMBOO_SIGN,
+    BAMBOO_HANGING_SIGN, BAMBOO_LEAVES, BAMBOO_SAPLING, BAMBOO_BOAT,
+    PALE_OAK_LOG, PALE_OAK_WOOD, PALE_OAK_PLANKS, PALE_OAK_SLAB,
+    PALE_OAK_STAIRS, PALE_OAK_FENCE, PALE_OAK_FENCE_GATE, PALE_OAK_DOOR,
+    PALE_OAK_TRAPDOOR, PALE_OAK_BUTTON, PALE_OAK_PRESSURE_PLATE, PALE_OAK_SIGN,
+    PALE_OAK_HANGING_SIGN, PALE_OAK_LEAVES, PALE_OAK_SAPLING, PALE_OAK_BOAT,
+    STONE_BLOCK, STONE_SLAB, STONE_STAIRS, STONE_WALL,
+    COBBLESTONE_BLOCK, COBBLESTONE_SLAB, COBBLESTONE_STAIRS, COBBLESTONE_WALL,
+    MOSSY_COBBLESTONE_BLOCK, MOSSY_COBBLESTONE_SLAB, MOSSY_COBBLESTONE_STAIRS, MOSSY_COBBLESTONE_WALL,
+    SANDSTONE_BLOCK, SANDSTONE_SLAB, SANDSTONE_STAIRS, SANDSTONE_WALL,
+    RED_SANDSTONE_BLOCK, RED_SANDSTONE_SLAB, RED_SANDSTONE_STAIRS, RED_SANDSTONE_WALL,
+    GRANITE_BLOCK, GRANITE_SLAB, GRANITE_STAIRS, GRANITE_WALL,
+    DIORITE_BLOCK, DIORITE_SLAB, DIORITE_STAIRS, DIORITE_WALL,
+    ANDESITE_BLOCK, ANDESITE_SLAB, ANDESITE_STAIRS, ANDESITE_WALL,
+    DEEPSLATE_BLOCK, DEEPSLATE_SLAB, DEEPSLATE_STAIRS, DEEPSLATE_WALL,
+    BLACKSTONE_BLOCK, BLACKSTONE_SLAB, BLACKSTONE_STAIRS, BLACKSTONE_WALL,
+    BRICK_BLOCK, BRICK_SLAB, BRICK_STAIRS, BRICK_WALL,
+    NETHER_BRICK_BLOCK, NETHER_BRICK_SLAB, NETHER_BRICK_STAIRS, NETHER_BRICK_WALL,
+    PRISMARINE_BLOCK, PRISMARINE_SLAB, PRISMARINE_STAIRS, PRISMARINE_WALL,
+    PURPUR_BLOCK, PURPUR_SLAB, PURPUR_STAIRS, PURPUR_WALL,
+    QUARTZ_BLOCK, QUARTZ_SLAB, QUARTZ_STAIRS, QUARTZ_WALL,
+    TUFF_BLOCK, TUFF_SLAB, TUFF_STAIRS, TUFF_WALL,
+    WHITE_WOOL, WHITE_CARPET, WHITE_CONCRETE, WHITE_CONCRETE_POWDER,
+    WHITE_TERRACOTTA, WHITE_GLAZED_TERRACOTTA, WHITE_STAINED_GLASS, WHITE_STAINED_GLASS_PANE,
+    WHITE_BED, WHITE_BANNER, WHITE_CANDLE, WHITE_SHULKER_BOX,
+    ORANGE_WOOL, ORANGE_CARPET, ORANGE_CONCRETE, ORANGE_CONCRETE_POWDER,
+    ORANGE_TERRACOTTA, ORANGE_GLAZED_TERRACOTTA, ORANGE_STAINED_GLASS, ORANGE_STAINED_GLASS_PANE,
+    ORANGE_BED, ORANGE_BANNER, ORANGE_CANDLE, ORANGE_SHULKER_BOX,
+    MAGENTA_WOOL, MAGENTA_CARPET, MAGENTA_CONCRETE, MAGENTA_CONCRETE_POWDER,
+    MAGENTA_TERRACOTTA, MAGENTA_GLAZED_TERRACOTTA, MAGENTA_STAINED_GLASS, MAGENTA_STAINED_GLASS_PANE,
+    MAGENTA_BED, MAGENTA_BANNER, MAGENTA_CANDLE, MAGENTA_SHULKER_BOX,
+    LIGHT_BLUE_WOOL, LIGHT_BLUE_CARPET, LIGHT_BLUE_CONCRETE, LIGHT_BLUE_CONCRETE_POWDER,
+    LIGHT_BLUE_TERRACOTTA, LIGHT_BLUE_GLAZED_TERRACOTTA, LIGHT_BLUE_STAINED_GLASS, LIGHT_BLUE_STAINED_GLASS_PANE,
+    LIGHT_BLUE_BED, LIGHT_BLUE_BANNER, LIGHT_BLUE_CANDLE, LIGHT_BLUE_SHULKER_BOX,
+    YELLOW_WOOL, YELLOW_CARPET, YELLOW_CONCRETE, YELLOW_CONCRETE_POWDER,
+    YELLOW_TERRACOTTA, YELLOW_GLAZED_TERRACOTTA, YELLOW_STAINED_GLASS, YELLOW_STAINED_GLASS_PANE,
+    YELLOW_BED, YELLOW_BANNER, YELLOW_CANDLE, YELLOW_SHULKER_BOX,
+    LIME_WOOL, LIME_CARPET, LIME_CONCRETE, LIME_CONCRETE_POWDER,
+    LIME_TERRACOTTA, LIME_GLAZED_TERRACOTTA, LIME_STAINED_GLASS, LIME_STAINED_GLASS_PANE,
+    LIME_BED, LIME_BANNER, LIME_CANDLE, LIME_SHULKER_BOX,
+    PINK_WOOL, PINK_CARPET, PINK_CONCRETE, PINK_CONCRETE_POWDER,
+    PINK_TERRACOTTA, PINK_GLAZED_TERRACOTTA, PINK_STAINED_GLASS, PINK_STAINED_GLASS_PANE,
+    PINK_BED, PINK_BANNER, PINK_CANDLE, PINK_SHULKER_BOX,
+    GRAY_WOOL, GRAY_CARPET, GRAY_CONCRETE, GRAY_CONCRETE_POWDER,
+    GRAY_TERRACOTTA, GRAY_GLAZED_TERRACOTTA, GRAY_STAINED_GLASS, GRAY_STAINED_GLASS_PANE,
+    GRAY_BED, GRAY_BANNER, GRAY_CANDLE, GRAY_SHULKER_BOX,
+    LIGHT_GRAY_WOOL, LIGHT_GRAY_CARPET, LIGHT_GRAY_CONCRETE, LIGHT_GRAY_CONCRETE_POWDER,
+    LIGHT_GRAY_TERRACOTTA, LIGHT_GRAY_GLAZED_TERRACOTTA, LIGHT_GRAY_STAINED_GLASS, LIGHT_GRAY_STAINED_GLASS_PANE,
+    LIGHT_GRAY_BED, LIGHT_GRAY_BANNER, LIGHT_GRAY_CANDLE, LIGHT_GRAY_SHULKER_BOX,
+    CYAN_WOOL, CYAN_CARPET, CYAN_CONCRETE, CYAN_CONCRETE_POWDER,
+    CYAN_TERRACOTTA, CYAN_GLAZED_TERRACOTTA, CYAN_STAINED_GLASS, CYAN_STAINED_GLASS_PANE,
+    CYAN_BED, CYAN_BANNER, CYAN_CANDLE, CYAN_SHULKER_BOX,
+    PURPLE_WOOL, PURPLE_CARPET, PURPLE_CONCRETE, PURPLE_CONCRETE_POWDER,
+    PURPLE_TERRACOTTA, PURPLE_GLAZED_TERRACOTTA, PURPLE_STAINED_GLASS, PURPLE_STAINED_GLASS_PANE,
+    PURPLE_BED, PURPLE_BANNER, PURPLE_CANDLE, PURPLE_SHULKER_BOX,
+    BLUE_WOOL, BLUE_CARPET, BLUE_CONCRETE, BLUE_CONCRETE_POWDER,
+    BLUE_TERRACOTTA, BLUE_GLAZED_TERRACOTTA, BLUE_STAINED_GLASS, BLUE_STAINED_GLASS_PANE,
+    BLUE_BED, BLUE_BANNER, BLUE_CANDLE, BLUE_SHULKER_BOX,
+    BROWN_WOOL, BROWN_CARPET, BROWN_CONCRETE, BROWN_CONCRETE_POWDER,
+    BROWN_TERRACOTTA, BROWN_GLAZED_TERRACOTTA, BROWN_STAINED_GLASS, BROWN_STAINED_GLASS_PANE,
+    BROWN_BED, BROWN_BANNER, BROWN_CANDLE, BROWN_SHULKER_BOX,
+    GREEN_WOOL, GREEN_CARPET, GREEN_CONCRETE, GREEN_CONCRETE_POWDER,
+    GREEN_TERRACOTTA, GREEN_GLAZED_TERRACOTTA, GREEN_STAINED_GLASS, GREEN_STAINED_GLASS_PANE,
+    GREEN_BED, GREEN_BANNER, GREEN_CANDLE, GREEN_SHULKER_BOX,
+    RED_WOOL, RED_CARPET, RED_CONCRETE, RED_CONCRETE_POWDER,
+    RED_TERRACOTTA, RED_GLAZED_TERRACOTTA, RED_STAINED_GLASS, RED_STAINED_GLASS_PANE,
+    RED_BED, RED_BANNER, RED_CANDLE, RED_SHULKER_BOX,
+    BLACK_WOOL, BLACK_CARPET, BLACK_CONCRETE, BLACK_CONCRETE_POWDER,
+    BLACK_TERRACOTTA, BLACK_GLAZED_TERRACOTTA, BLACK_STAINED_GLASS, BLACK_STAINED_GLASS_PANE,
+    BLACK_BED, BLACK_BANNER, BLACK_CANDLE, BLACK_SHULKER_BOX
+
+}
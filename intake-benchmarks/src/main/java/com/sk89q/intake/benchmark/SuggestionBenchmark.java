@@ -0,0 +1,82 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.benchmark;
+
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.Dispatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Dispatcher#getSuggestions(String, Namespace)} on deep
+ * command trees, completing a partial alias on the deepest level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionBenchmark {
+
+    @Param({"1", "2", "4"})
+    private int depth;
+
+    @Param({"1", "16", "128"})
+    private int aliasCount;
+
+    private Dispatcher dispatcher;
+    private String partialAlias;
+    private String emptyPrefix;
+
+    @Setup
+    public void setUp() {
+        // Walk down to the deepest level that still has sibling commands to complete
+        dispatcher = Fixtures.createGraph(depth, aliasCount).getDispatcher();
+        String path = Fixtures.createPath(depth - 1, "");
+        String parents = path.substring(0, path.length() - Fixtures.LEAF_ALIAS.length());
+        partialAlias = parents + "cmd1";
+        emptyPrefix = parents;
+    }
+
+    @Benchmark
+    public List<String> completeAlias() throws CommandException {
+        return dispatcher.getSuggestions(partialAlias, new Namespace());
+    }
+
+    @Benchmark
+    public List<String> completeAll() throws CommandException {
+        return dispatcher.getSuggestions(emptyPrefix, new Namespace());
+    }
+
+}
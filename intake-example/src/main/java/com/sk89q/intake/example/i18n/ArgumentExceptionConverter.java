@@ -48,36 +48,36 @@ public class ArgumentExceptionConverter extends ExceptionConverterHelper {
 
   @ExceptionMatch
   public void convert(StringFormatException e, ExceptionContext context) throws InvalidUsageException {
-    throw ex(msg.getString("primitives.invalid.format", e.getFormat()), context, e);
+    throw ex(msg.getString(context.getNamespace(), "primitives.invalid.format", e.getFormat()), context, e);
   }
 
   @ExceptionMatch
   public void convert(NonnumericalInputException e, ExceptionContext context)
       throws InvalidUsageException {
-    throw ex(msg.getString("primitives.invalid.non-number", e.getInput()), context, e);
+    throw ex(msg.getString(context.getNamespace(), "primitives.invalid.non-number", e.getInput()), context, e);
   }
 
   @ExceptionMatch
   public void convert(OverRangeException e, ExceptionContext context) throws InvalidUsageException {
-    throw ex(msg.getString("primitives.invalid.greater-or-equal", e.getMaximum(), e.getInput()), context, e);
+    throw ex(msg.getString(context.getNamespace(), "primitives.invalid.greater-or-equal", e.getMaximum(), e.getInput()), context, e);
   }
 
   @ExceptionMatch
   public void convert(UnderRangeException e, ExceptionContext context) throws InvalidUsageException {
-    throw ex(msg.getString("primitives.invalid.less-or-equal", e.getMinimum(), e.getInput()), context, e);
+    throw ex(msg.getString(context.getNamespace(), "primitives.invalid.less-or-equal", e.getMinimum(), e.getInput()), context, e);
   }
 
   @ExceptionMatch
   public void convert(NoMatchInEnumException e, ExceptionContext context) throws InvalidUsageException {
-    throw ex(msg.getString("enum.no-matching-value", e.getEnumName()), context, e);
+    throw ex(msg.getString(context.getNamespace(), "enum.no-matching-value", e.getEnumName()), context, e);
   }
 
   private InvalidUsageException ex(String errorMsg, ExceptionContext context, ArgumentParseException cause) {
     if (cause.getParameter() != null) {
-      return new InvalidUsageException(msg.getString("parameter.error", cause.getParameter().getName(), errorMsg),
+      return new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.error", cause.getParameter().getName(), errorMsg),
                                        context.getCommand(), context.getAliasStack(), false, cause);
     } else {
-      return new InvalidUsageException(msg.getString("parameter.error.unknown", errorMsg), context.getCommand(),
+      return new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.error.unknown", errorMsg), context.getCommand(),
                                        context.getAliasStack(), false, cause);
     }
   }
@@ -21,6 +21,8 @@ package com.sk89q.intake.example.i18n;
 
 import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.CommandException;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
 import com.sk89q.intake.Intake;
 import com.sk89q.intake.InvalidUsageException;
 import com.sk89q.intake.InvocationCommandException;
@@ -40,8 +42,10 @@ import com.sk89q.intake.parametric.Injector;
 import com.sk89q.intake.parametric.ParametricBuilder;
 import com.sk89q.intake.parametric.provider.PrimitivesModule;
 import com.sk89q.intake.util.auth.AuthorizationException;
+import com.sk89q.intake.util.i18n.BundleResourceProvider;
 
 import java.util.Collections;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -83,7 +87,8 @@ public final class I18nExample {
 
     ParametricBuilder builder = new ParametricBuilder(injector);
     builder.setAuthorizer(new ExampleAuthorizer());
-    builder.setResourceProvider(new ExampleResourceProvider());
+    builder.setResourceProvider(
+        new BundleResourceProvider(RESOURCE_NAME, I18nExample.class.getClassLoader()));
     builder.addExceptionConverter(new I18nExceptionConverter());
 
     Dispatcher
@@ -114,22 +119,25 @@ public final class I18nExample {
     try {
       callable.call(command, namespace, Collections.<String>emptyList());
     } catch (NoSubcommandsException e) {
-      System.out.println(msg.getString("subcommand.none"));
+      System.out.println(msg.getString(namespace, "subcommand.none"));
     } catch (SubcommandRequiredException e) {
-      System.out.println(msg.getString("subcommand.choose"));
+      System.out.println(msg.getString(namespace, "subcommand.choose"));
     } catch (InvalidUsageException e) {
       StringBuilder errorMsg = new StringBuilder();
       errorMsg.append(e.getMessage());
 
       if (e.isFullHelpSuggested()) {
         errorMsg.append(System.getProperty("line.separator"));
-        errorMsg.append(e.getCommand().getDescription().getHelp());
+        Description description = e.getCommand().getDescription();
+        Locale locale = namespace.get(Locale.class);
+        errorMsg.append(locale != null && description instanceof ImmutableDescription
+                        ? ((ImmutableDescription) description).getHelp(locale) : description.getHelp());
       }
       System.out.println(errorMsg);
     } catch (CommandException e) {
       handleException(e);
     } catch (AuthorizationException e) {
-      System.out.println(msg.getString("error.no-permission"));
+      System.out.println(msg.getString(namespace, "error.no-permission"));
     } catch (InvocationCommandException e) {
       handleException(e);
     }
@@ -40,29 +40,29 @@ public class I18nExceptionConverter extends ExceptionConverterHelper {
   @ExceptionMatch
   public void convert(MissingArgumentException e, ExceptionContext context) throws InvalidUsageException {
     if (e.getParameter() != null) {
-      throw new InvalidUsageException(msg.getString("parameter.argument.missing", e.getParameter().getName()),
+      throw new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.argument.missing", e.getParameter().getName()),
                                       context.getCommand(), context.getAliasStack(), false, e);
     } else {
-      throw new InvalidUsageException(msg.getString("parameter.argument.missing.unknown"), context.getCommand(),
+      throw new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.argument.missing.unknown"), context.getCommand(),
                                       context.getAliasStack(), false, e);
     }
   }
 
   @ExceptionMatch
   public void convert(UnusedArgumentException e, ExceptionContext context) throws InvalidUsageException {
-    throw new InvalidUsageException(msg.getString("parameter.argument.unused", e.getUnconsumed()), context.getCommand(),
+    throw new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.argument.unused", e.getUnconsumed()), context.getCommand(),
                                     context.getAliasStack(), false, e);
   }
 
   @ExceptionMatch
   public void convert(MissingFlagValueException e, ExceptionContext context) throws InvalidUsageException {
-    throw new InvalidUsageException(msg.getString("parameter.flag.value.missing"), context.getCommand(),
+    throw new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.flag.value.missing"), context.getCommand(),
                                     context.getAliasStack(), true, e);
   }
 
   @ExceptionMatch
   public void convert(AlreadyPresentFlagException e, ExceptionContext context) throws InvalidUsageException {
-    throw new InvalidUsageException(msg.getString("parameter.flag.value.already-given"), context.getCommand(),
+    throw new InvalidUsageException(msg.getString(context.getNamespace(), "parameter.flag.value.already-given"), context.getCommand(),
                                     context.getAliasStack(), true, e);
   }
 
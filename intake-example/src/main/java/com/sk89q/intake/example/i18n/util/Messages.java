@@ -19,46 +19,29 @@
 
 package com.sk89q.intake.example.i18n.util;
 
-import java.text.MessageFormat;
-import java.util.Arrays;
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.util.i18n.BundleResourceProvider;
 
-public final class Messages {
+import javax.annotation.Nullable;
 
-  private static final Logger log = Logger.getLogger(Messages.class.getCanonicalName());
+public final class Messages {
 
-  private final String bundleName;
+  private final BundleResourceProvider resources;
 
   public Messages(String bundleName) {
-    this.bundleName = bundleName;
+    this.resources = new BundleResourceProvider(bundleName, Messages.class.getClassLoader());
   }
 
   public String getString(String key) {
-    try {
-      return getBundle().getString(key);
-    } catch (MissingResourceException e) {
-      log.log(Level.WARNING, "Translation for '" + key + "' is missing.", e);
-      return "${" + key + "}";
-    }
+    return resources.getString(key);
   }
 
   public String getString(String key, Object... args) {
-    try {
-      ResourceBundle bundle = getBundle();
-      MessageFormat format = new MessageFormat(bundle.getString(key), bundle.getLocale());
-      return format.format(args);
-    } catch (MissingResourceException e) {
-      log.log(Level.WARNING, "Translation for '" + key + "' is missing.", e);
-      return "${" + key + "}:" + Arrays.toString(args);
-    }
-
+    return resources.format(key, args);
   }
 
-  private ResourceBundle getBundle() {
-    return ResourceBundle.getBundle(bundleName);
+  public String getString(@Nullable Namespace namespace, String key, Object... args) {
+    return namespace != null ? resources.format(namespace, key, args) : resources.format(key, args);
   }
 
 }
@@ -19,46 +19,17 @@
 
 package com.sk89q.intake.example.sender;
 
-import com.google.common.collect.ImmutableList;
-import com.sk89q.intake.argument.ArgumentException;
-import com.sk89q.intake.argument.ArgumentParseException;
-import com.sk89q.intake.argument.CommandArgs;
-import com.sk89q.intake.argument.Namespace;
-import com.sk89q.intake.parametric.Provider;
-import com.sk89q.intake.parametric.ProvisionException;
+import com.sk89q.intake.parametric.provider.ChoiceProvider;
 
-import javax.annotation.Nullable;
-import java.lang.annotation.Annotation;
-import java.util.List;
 import java.util.Map;
 
-public class UserProvider implements Provider<User> {
-
-    private final Map<String, User> users;
+public class UserProvider extends ChoiceProvider<User> {
 
     public UserProvider(Map<String, User> users) {
-        this.users = users;
-    }
-
-    @Override
-    public boolean isProvided() {
-        return false;
-    }
-
-    @Nullable
-    @Override
-    public User get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException {
-        String name = arguments.next();
-        User user = users.get(name);
-        if (user == null) {
-            throw new ArgumentParseException("Couldn't find a user by the name '" + name + "'");
+        super("users");
+        for (User user : users.values()) {
+            put(user.getName(), user);
         }
-        return user;
-    }
-
-    @Override
-    public List<String> getSuggestions(String prefix, Namespace locals) {
-        return ImmutableList.of();
     }
 
 }
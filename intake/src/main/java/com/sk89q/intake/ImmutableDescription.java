@@ -22,14 +22,22 @@ package com.sk89q.intake;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.util.i18n.LocalizedResourceProvider;
 import com.sk89q.intake.util.i18n.ResourceProvider;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
 /**
  * An immutable implementation of a Description. <p>Use {@link Builder} to create instances.</p>
+ *
+ * <p>The generated usage is rendered once. If a {@link LocalizedResourceProvider} is set, the short description, help
+ * and usage override are resolved once per locale. Other resource providers are asked on every call, because there is
+ * no way to know which locale they resolve for.</p>
  */
 public final class ImmutableDescription implements Description {
 
@@ -41,6 +49,9 @@ public final class ImmutableDescription implements Description {
   private final String usageOverride;
   @Nullable
   private final ResourceProvider resourceProvider;
+  @Nullable
+  private final String generatedUsage;
+  private final ConcurrentMap<Locale, Resolved> resolved = new ConcurrentHashMap<Locale, Resolved>();
 
   private ImmutableDescription(List<Parameter> parameters, List<String> permissions, String shortDescription,
                                String help, @Nullable String usageOverride,
@@ -51,6 +62,22 @@ public final class ImmutableDescription implements Description {
     this.shortDescription = shortDescription;
     this.help = help;
     this.usageOverride = usageOverride;
+    this.generatedUsage = usageOverride == null ? generateUsage(this.parameters) : null;
+  }
+
+  private static String generateUsage(List<Parameter> parameters) {
+    StringBuilder builder = new StringBuilder();
+    boolean first = true;
+
+    for (Parameter parameter : parameters) {
+      if (!first) {
+        builder.append(" ");
+      }
+      builder.append(parameter.getName());
+      first = false;
+    }
+
+    return builder.toString();
   }
 
   @Override
@@ -61,15 +88,51 @@ public final class ImmutableDescription implements Description {
   @Nullable
   @Override
   public String getShortDescription() {
+    if (resourceProvider instanceof LocalizedResourceProvider) {
+      return getShortDescription(((LocalizedResourceProvider) resourceProvider).getLocale());
+    }
     return resourceProvider != null ? resourceProvider.getString(shortDescription) : shortDescription;
   }
 
+  /**
+   * Get the short description in the given locale. <p>The locale is ignored unless a {@link
+   * LocalizedResourceProvider} is set.</p>
+   *
+   * @param locale The locale
+   * @return A description, or null if no description is available
+   */
+  @Nullable
+  public String getShortDescription(Locale locale) {
+    if (resourceProvider instanceof LocalizedResourceProvider) {
+      return resolve(locale).shortDescription;
+    }
+    return getShortDescription();
+  }
+
   @Nullable
   @Override
   public String getHelp() {
+    if (resourceProvider instanceof LocalizedResourceProvider) {
+      return getHelp(((LocalizedResourceProvider) resourceProvider).getLocale());
+    }
     return resourceProvider != null ? resourceProvider.getString(help) : help;
   }
 
+  /**
+   * Get the help text in the given locale. <p>The locale is ignored unless a {@link LocalizedResourceProvider} is
+   * set.</p>
+   *
+   * @param locale The locale
+   * @return A help text, or null if no help is available
+   */
+  @Nullable
+  public String getHelp(Locale locale) {
+    if (resourceProvider instanceof LocalizedResourceProvider) {
+      return resolve(locale).help;
+    }
+    return getHelp();
+  }
+
   @Override
   public List<String> getPermissions() {
     return permissions;
@@ -77,22 +140,46 @@ public final class ImmutableDescription implements Description {
 
   @Override
   public String getUsage() {
-    if (usageOverride != null) {
-      return resourceProvider != null ? resourceProvider.getString(usageOverride) : usageOverride;
+    if (generatedUsage != null) {
+      return generatedUsage;
     }
+    if (resourceProvider instanceof LocalizedResourceProvider) {
+      return getUsage(((LocalizedResourceProvider) resourceProvider).getLocale());
+    }
+    return resourceProvider != null ? resourceProvider.getString(usageOverride) : usageOverride;
+  }
 
-    StringBuilder builder = new StringBuilder();
-    boolean first = true;
+  /**
+   * Get the usage string in the given locale. <p>The locale is ignored unless a usage override and a {@link
+   * LocalizedResourceProvider} are set.</p>
+   *
+   * @param locale The locale
+   * @return A usage string
+   */
+  public String getUsage(Locale locale) {
+    if (generatedUsage == null && resourceProvider instanceof LocalizedResourceProvider) {
+      return resolve(locale).usage;
+    }
+    return getUsage();
+  }
 
-    for (Parameter parameter : parameters) {
-      if (!first) {
-        builder.append(" ");
+  private Resolved resolve(Locale locale) {
+    Resolved strings = resolved.get(locale);
+    if (strings == null) {
+      LocalizedResourceProvider provider = (LocalizedResourceProvider) resourceProvider;
+      strings = new Resolved(resolve(provider, shortDescription, locale), resolve(provider, help, locale),
+                             resolve(provider, usageOverride, locale));
+      Resolved existing = resolved.putIfAbsent(locale, strings);
+      if (existing != null) {
+        strings = existing;
       }
-      builder.append(parameter.getName());
-      first = false;
     }
+    return strings;
+  }
 
-    return builder.toString();
+  @Nullable
+  private static String resolve(LocalizedResourceProvider provider, @Nullable String key, Locale locale) {
+    return key != null ? provider.getString(key, locale) : null;
   }
 
   @Override
@@ -100,6 +187,25 @@ public final class ImmutableDescription implements Description {
     return getUsage();
   }
 
+  /**
+   * The resources of a description resolved for one locale.
+   */
+  private static final class Resolved {
+
+    @Nullable
+    private final String shortDescription;
+    @Nullable
+    private final String help;
+    @Nullable
+    private final String usage;
+
+    private Resolved(@Nullable String shortDescription, @Nullable String help, @Nullable String usage) {
+      this.shortDescription = shortDescription;
+      this.help = help;
+      this.usage = usage;
+    }
+  }
+
   /**
    * Builds instances of {@link ImmutableDescription}. <p>By default, the list of parameters and permissions will be
    * empty lists.</p>
@@ -19,6 +19,9 @@
 
 package com.sk89q.intake;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.sk89q.intake.internal.parametric.InternalInjector;
 import com.sk89q.intake.parametric.Injector;
 
@@ -39,4 +42,22 @@ public final class Intake {
         return new InternalInjector();
     }
 
+    /**
+     * Create a read-only snapshot of an injector created by
+     * {@link #createInjector()}, containing the bindings of every module
+     * installed so far.
+     *
+     * <p>No modules can be installed into the returned injector. It can be
+     * shared between threads without synchronization.</p>
+     *
+     * @param injector The injector
+     * @return A frozen injector
+     * @throws IllegalArgumentException If the injector was not created by {@link #createInjector()}
+     */
+    public static Injector freeze(Injector injector) {
+        checkNotNull(injector, "injector");
+        checkArgument(injector instanceof InternalInjector, "Only injectors created by Intake.createInjector() can be frozen");
+        return ((InternalInjector) injector).freeze();
+    }
+
 }
@@ -19,9 +19,9 @@
 
 package com.sk89q.intake;
 
-import com.google.common.collect.ImmutableList;
 import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.FlagSet;
 
 import javax.annotation.Nullable;
 
@@ -163,7 +163,7 @@ public abstract class OptionType {
     }
 
     private static final class BooleanFlag extends OptionType {
-        private final Character flag;
+        private final char flag;
 
         private BooleanFlag(Character flag) {
             this.flag = flag;
@@ -187,13 +187,12 @@ public abstract class OptionType {
 
         @Override
         public CommandArgs transform(CommandArgs arguments) {
-            String v = arguments.getFlags().containsKey(flag) ? "true" : "false";
-            return Arguments.copyOf(ImmutableList.of(v), arguments.getFlags(), arguments.getNamespace());
+            return Arguments.singleOf(FlagSet.of(arguments).contains(flag) ? "true" : "false", arguments);
         }
     }
 
     private static final class ValueFlag extends OptionType {
-        private final Character flag;
+        private final char flag;
 
         private ValueFlag(Character flag) {
             this.flag = flag;
@@ -217,11 +216,7 @@ public abstract class OptionType {
 
         @Override
         public CommandArgs transform(CommandArgs arguments) {
-            String value = arguments.getFlags().get(flag);
-            if (value == null) {
-                return Arguments.copyOf(ImmutableList.<String>of(), arguments.getFlags(), arguments.getNamespace());
-            }
-            return Arguments.copyOf(ImmutableList.of(value), arguments.getFlags(), arguments.getNamespace());
+            return Arguments.singleOf(FlagSet.of(arguments).getValue(flag), arguments);
         }
     }
 
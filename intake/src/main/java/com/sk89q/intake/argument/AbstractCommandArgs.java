@@ -21,6 +21,23 @@ package com.sk89q.intake.argument;
 
 abstract class AbstractCommandArgs implements CommandArgs {
 
+    private FlagSet flagSet;
+
+    /**
+     * Get the defined flags as a set, which holds the same flags as
+     * {@link #getFlags()}.
+     *
+     * @return the set of flags
+     * @see FlagSet#of(CommandArgs)
+     */
+    FlagSet getFlagSet() {
+        FlagSet flagSet = this.flagSet;
+        if (flagSet == null) {
+            this.flagSet = flagSet = FlagSet.copyOf(getFlags());
+        }
+        return flagSet;
+    }
+
     @Override
     public int nextInt() throws MissingArgumentException, ArgumentParseException {
         String next = next();
@@ -46,4 +46,8 @@ public class ArgumentException extends Exception {
         super(cause);
     }
 
+    protected ArgumentException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+
 }
@@ -25,6 +25,8 @@ import com.google.common.collect.ImmutableMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 /**
  * Builds instances of {@link CommandArgs}.
  */
@@ -43,6 +45,18 @@ public final class Arguments {
         return new ContextArgs(context);
     }
 
+    /**
+     * Create an argument stack with at most one argument that uses the
+     * flags and the namespace of other arguments. Nothing is copied.
+     *
+     * @param argument The argument, or null for no argument
+     * @param parent The arguments whose flags and namespace are used
+     * @return The arguments
+     */
+    public static CommandArgs singleOf(@Nullable String argument, CommandArgs parent) {
+        return new SingleArgs(argument, parent);
+    }
+
     /**
      * Create an argument stack from a list of string arguments using
      * an empty namespace.
@@ -19,32 +19,37 @@
 
 package com.sk89q.intake.argument;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 public class CommandContext {
 
+  private static final String[] NO_STRINGS = new String[0];
+  private static final int[] NO_OFFSETS = new int[0];
+
   private final String command;
-  private final List<String> parsedArgs;
-  private final List<Integer> originalArgIndices;
-  private final String[] originalArgs;
-  private final Set<Character> booleanFlags;
-  private final Map<Character, String> valueFlags;
-  private final Map<Character, String> allFlags;
+  private final CharSequence input;
+  private final int argumentsStart;
+  private final int[] offsets;
+  private final int argumentCount;
+  private final FlagSet flags;
+  private Set<Character> booleanFlags;
+  private Map<Character, String> valueFlags;
   private final SuggestionContext suggestionContext;
   private final Namespace namespace;
+  private String[] parsedArgs;
+  private String[] originalArgs;
 
   public static String[] split(String args) {
     return args.split(" ", -1);
@@ -52,7 +57,7 @@ public class CommandContext {
 
   @Deprecated
   public CommandContext(String args) throws FlagException {
-    this(split(args));
+    this(args, null);
   }
 
   @Deprecated
@@ -62,7 +67,7 @@ public class CommandContext {
 
   @Deprecated
   public CommandContext(String args, Set<Character> valueFlags) throws FlagException {
-    this(split(args), valueFlags);
+    this(args, valueFlags, false, null);
   }
 
   @Deprecated
@@ -72,7 +77,12 @@ public class CommandContext {
 
   @Deprecated
   public CommandContext(String args, Set<Character> valueFlags, boolean allowHangingFlag) throws FlagException {
-    this(split(args), valueFlags, allowHangingFlag, new Namespace());
+    this(args, valueFlags, allowHangingFlag, new Namespace());
+  }
+
+  private CommandContext(String args, Set<Character> valueFlags, boolean allowHangingFlag, Namespace namespace)
+      throws FlagException {
+    this(commandOf(args), args, argumentsStartOf(args), valueFlags, allowHangingFlag, namespace);
   }
 
   /**
@@ -88,140 +98,187 @@ public class CommandContext {
   @Deprecated
   public CommandContext(String[] args, Set<Character> expectedValueFlags, boolean allowHangingFlag, Namespace namespace)
       throws FlagException {
-    if (expectedValueFlags == null) {
-      expectedValueFlags = Collections.emptySet();
-    }
+    this(args[0], Joiner.on(' ').join(args), args.length > 1 ? args[0].length() + 1 : -1, separatorsOf(args),
+         expectedValueFlags != null ? FlagSet.maskOf(expectedValueFlags) : 0, allowHangingFlag, namespace);
+    this.originalArgs = args;
+  }
+
+  /**
+   * Parse the arguments of a command from the given input.
+   *
+   * <p>The input is read in a single pass by a {@link Tokenizer} and is
+   * not copied: arguments are kept as offsets into it and are only turned
+   * into strings when they are requested. Parsing of flags stops at the
+   * first unquoted {@code --}, which is itself not kept as an argument.</p>
+   *
+   * @param command            the command
+   * @param input              the input containing the arguments
+   * @param argumentsStart     the offset of the arguments in the input, or -1 if there are no arguments
+   * @param expectedValueFlags a set containing all value flags (pass null to disable value flag parsing)
+   * @param allowHangingFlag   true if hanging flags are allowed
+   * @param namespace          the locals, null to create empty one
+   * @throws FlagException thrown on a parsing error
+   */
+  CommandContext(String command, CharSequence input, int argumentsStart, Set<Character> expectedValueFlags,
+                 boolean allowHangingFlag, Namespace namespace) throws FlagException {
+    this(command, input, argumentsStart, null,
+         expectedValueFlags != null ? FlagSet.maskOf(expectedValueFlags) : 0, allowHangingFlag, namespace);
+  }
 
-    originalArgs = args;
-    command = args[0];
+  /**
+   * Parse the arguments in the given input, like
+   * {@link #CommandContext(String, CharSequence, int, Set, boolean, Namespace)},
+   * with the value flags given as a mask of {@link FlagSet} bits.
+   *
+   * @param command            the command that is being executed
+   * @param input              the input that contains the arguments
+   * @param argumentsStart     the offset of the arguments in the input, or -1 if there are none
+   * @param separators         the offsets of the spaces that separate arguments, or null if every space does
+   * @param expectedValueMask  the mask of all value flags
+   * @param allowHangingFlag   true if hanging flags are allowed
+   * @param namespace          the locals, null to create empty one
+   * @throws FlagException thrown on a parsing error
+   */
+  CommandContext(String command, CharSequence input, int argumentsStart, @Nullable BitSet separators,
+                 long expectedValueMask, boolean allowHangingFlag, Namespace namespace) throws FlagException {
+    this.command = command;
+    this.input = input;
+    this.argumentsStart = argumentsStart;
     this.namespace = namespace != null ? namespace : new Namespace();
-    boolean isHanging = false;
     SuggestionContext suggestionContext = SuggestionContext.hangingValue();
 
-    // Eliminate empty args and combine multiword args first
-    List<Integer> argIndexList = new ArrayList<Integer>(args.length);
-    List<String> argList = new ArrayList<String>(args.length);
-    for (int i = 1; i < args.length; ++i) {
-      isHanging = false;
+    int[] offsets = NO_OFFSETS;
+    int count = 0;
+    FlagSet.Builder flags = null;
 
-      String arg = args[i];
-      if (arg.isEmpty()) {
-        isHanging = true;
-        continue;
-      }
+    if (argumentsStart >= 0) {
+      Tokenizer tokenizer = new Tokenizer(input, argumentsStart, separators);
+      boolean isHanging = tokenizer.isHanging();
+      boolean parseFlags = true;
 
-      argIndexList.add(i);
+      while (tokenizer.next()) {
+        suggestionContext = SuggestionContext.hangingValue();
 
-      switch (arg.charAt(0)) {
-        case '\'':
-        case '"':
-          final StringBuilder build = new StringBuilder();
-          final char quotedChar = arg.charAt(0);
+        // Handle flag parsing terminator --
+        if (parseFlags && tokenizer.isFlagTerminator()) {
+          parseFlags = false;
+          continue;
+        }
 
-          int endIndex;
-          for (endIndex = i; endIndex < args.length; ++endIndex) {
-            final String arg2 = args[endIndex];
-            if (arg2.charAt(arg2.length() - 1) == quotedChar && arg2.length() > 1) {
-              if (endIndex != i) {
-                build.append(' ');
-              }
-              build.append(arg2.substring(endIndex == i ? 1 : 0, arg2.length() - 1));
-              break;
-            } else if (endIndex == i) {
-              build.append(arg2.substring(1));
-            } else {
-              build.append(' ').append(arg2);
-            }
+        // Not a flag?
+        if (!parseFlags || !tokenizer.isFlag()) {
+          if (!isHanging) {
+            suggestionContext = SuggestionContext.lastValue();
           }
 
-          if (endIndex < args.length) {
-            arg = build.toString();
-            i = endIndex;
+          if (offsets.length == count * 3) {
+            offsets = Arrays.copyOf(offsets, Math.max(12, offsets.length * 2));
           }
+          offsets[count * 3] = tokenizer.getTokenStart();
+          offsets[count * 3 + 1] = tokenizer.getValueStart();
+          offsets[count * 3 + 2] = tokenizer.getValueEnd();
+          count++;
+          continue;
+        }
 
-          // In case there is an empty quoted string
-          if (arg.isEmpty()) {
-            continue;
-          }
-          // else raise exception about hanging quotes?
-      }
-      argList.add(arg);
-    }
+        // Go through the flag characters
+        int flagEnd = tokenizer.getValueEnd();
+        for (int i = tokenizer.getValueStart() + 1; i < flagEnd; ++i) {
+          char flagName = input.charAt(i);
 
-    // Then flags
+          if (flags == null) {
+            flags = new FlagSet.Builder();
+          }
 
-    List<Integer> originalArgIndices = Lists.newArrayListWithCapacity(argIndexList.size());
-    List<String> parsedArgs = Lists.newArrayListWithCapacity(argList.size());
-    Map<Character, String> valueFlags = Maps.newHashMap();
-    List<Character> booleanFlags = Lists.newArrayList();
+          if ((expectedValueMask & FlagSet.maskOf(flagName)) != 0) {
+            if (flags.hasValue(flagName)) {
+              throw new AlreadyPresentFlagException(flagName);
+            }
 
-    for (int nextArg = 0; nextArg < argList.size(); ) {
-      // Fetch argument
-      String arg = argList.get(nextArg++);
-      suggestionContext = SuggestionContext.hangingValue();
+            if (!tokenizer.next()) {
+              if (allowHangingFlag) {
+                suggestionContext = SuggestionContext.flag(flagName);
+                break;
+              } else {
+                throw new MissingFlagValueException(flagName);
+              }
+            }
 
-      // Not a flag?
-      if (arg.charAt(0) != '-' || arg.length() == 1 || !arg.matches("^-[a-zA-Z\\?]+$")) {
-        if (!isHanging) {
-          suggestionContext = SuggestionContext.lastValue();
+            // If it is a value flag, read another argument and add it
+            flags.put(flagName, tokenizer.getValue());
+            if (!isHanging) {
+              suggestionContext = SuggestionContext.flag(flagName);
+            }
+          } else {
+            flags.add(flagName);
+          }
         }
-
-        originalArgIndices.add(argIndexList.get(nextArg - 1));
-        parsedArgs.add(arg);
-        continue;
       }
+    }
 
-      // Handle flag parsing terminator --
-      if (arg.equals("--")) {
-        while (nextArg < argList.size()) {
-          originalArgIndices.add(argIndexList.get(nextArg));
-          parsedArgs.add(argList.get(nextArg++));
-        }
-        break;
-      }
+    this.offsets = offsets;
+    this.argumentCount = count;
+    this.flags = flags != null ? flags.build() : FlagSet.empty();
 
-      // Go through the flag characters
-      for (int i = 1; i < arg.length(); ++i) {
-        char flagName = arg.charAt(i);
+    this.suggestionContext = suggestionContext;
+  }
 
-        if (expectedValueFlags.contains(flagName)) {
-          if (valueFlags.containsKey(flagName)) {
-            throw new AlreadyPresentFlagException(flagName);
-          }
+  private static String commandOf(String args) {
+    int index = args.indexOf(' ');
+    return index == -1 ? args : args.substring(0, index);
+  }
 
-          if (nextArg >= argList.size()) {
-            if (allowHangingFlag) {
-              suggestionContext = SuggestionContext.flag(flagName);
-              break;
-            } else {
-              throw new MissingFlagValueException(flagName);
-            }
-          }
+  private static int argumentsStartOf(String args) {
+    int index = args.indexOf(' ');
+    return index == -1 ? -1 : index + 1;
+  }
 
-          // If it is a value flag, read another argument and add it
-          valueFlags.put(flagName, argList.get(nextArg++));
-          if (!isHanging) {
-            suggestionContext = SuggestionContext.flag(flagName);
-          }
-        } else {
-          booleanFlags.add(flagName);
-        }
-      }
+  /**
+   * Get the offsets of the spaces that join the given elements, so that
+   * the elements can be read back from the joined string unchanged.
+   *
+   * @param elements the elements
+   * @return the offsets of the joining spaces
+   */
+  private static BitSet separatorsOf(String[] elements) {
+    BitSet separators = new BitSet();
+    int offset = 0;
+    for (int i = 0; i < elements.length - 1; i++) {
+      offset += elements[i].length();
+      separators.set(offset++);
     }
+    return separators;
+  }
 
-    ImmutableMap.Builder<Character, String>
-        allFlagsBuilder =
-        new ImmutableMap.Builder<Character, String>().putAll(valueFlags);
-    for (Character flag : booleanFlags) {
-      allFlagsBuilder.put(flag, "true");
+  private void checkIndex(int index) {
+    if (index < 0 || index >= argumentCount) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + argumentCount);
     }
+  }
 
-    this.parsedArgs = ImmutableList.copyOf(parsedArgs);
-    this.originalArgIndices = ImmutableList.copyOf(originalArgIndices);
-    this.booleanFlags = ImmutableSet.copyOf(booleanFlags);
-    this.valueFlags = ImmutableMap.copyOf(valueFlags);
-    this.allFlags = allFlagsBuilder.build();
-    this.suggestionContext = suggestionContext;
+  private String[] getParsedArgs() {
+    String[] parsedArgs = this.parsedArgs;
+    if (parsedArgs == null) {
+      parsedArgs = argumentCount == 0 ? NO_STRINGS : new String[argumentCount];
+      this.parsedArgs = parsedArgs;
+    }
+    return parsedArgs;
+  }
+
+  private String[] getOriginalArgs() {
+    String[] originalArgs = this.originalArgs;
+    if (originalArgs == null) {
+      if (argumentsStart >= 0) {
+        String[] arguments = split(input.subSequence(argumentsStart, input.length()).toString());
+        originalArgs = new String[arguments.length + 1];
+        System.arraycopy(arguments, 0, originalArgs, 1, arguments.length);
+      } else {
+        originalArgs = new String[1];
+      }
+      originalArgs[0] = command;
+      this.originalArgs = originalArgs;
+    }
+    return originalArgs;
   }
 
   public SuggestionContext getSuggestionContext() {
@@ -237,97 +294,127 @@ public class CommandContext {
   }
 
   public String getString(int index) {
-    return parsedArgs.get(index);
+    checkIndex(index);
+    String[] parsedArgs = getParsedArgs();
+    String value = parsedArgs[index];
+    if (value == null) {
+      value = input.subSequence(offsets[index * 3 + 1], offsets[index * 3 + 2]).toString();
+      parsedArgs[index] = value;
+    }
+    return value;
   }
 
   public String getString(int index, String def) {
-    return index < parsedArgs.size() ? parsedArgs.get(index) : def;
+    return index < argumentCount ? getString(index) : def;
   }
 
   public String getJoinedStrings(int initialIndex) {
-    initialIndex = originalArgIndices.get(initialIndex);
-    StringBuilder buffer = new StringBuilder(originalArgs[initialIndex]);
-    for (int i = initialIndex + 1; i < originalArgs.length; ++i) {
-      buffer.append(" ").append(originalArgs[i]);
-    }
-    return buffer.toString();
+    checkIndex(initialIndex);
+    return input.subSequence(offsets[initialIndex * 3], input.length()).toString();
   }
 
   public String getRemainingString(int start) {
-    return getString(start, parsedArgs.size() - 1);
+    return getString(start, argumentCount - 1);
   }
 
   public String getString(int start, int end) {
-    StringBuilder buffer = new StringBuilder(parsedArgs.get(start));
+    StringBuilder buffer = new StringBuilder(getString(start));
     for (int i = start + 1; i < end + 1; ++i) {
-      buffer.append(" ").append(parsedArgs.get(i));
+      buffer.append(" ").append(getString(i));
     }
     return buffer.toString();
   }
 
   public int getInteger(int index) throws NumberFormatException {
-    return Integer.parseInt(parsedArgs.get(index));
+    return Integer.parseInt(getString(index));
   }
 
   public int getInteger(int index, int def) throws NumberFormatException {
-    return index < parsedArgs.size() ? Integer.parseInt(parsedArgs.get(index)) : def;
+    return index < argumentCount ? Integer.parseInt(getString(index)) : def;
   }
 
   public double getDouble(int index) throws NumberFormatException {
-    return Double.parseDouble(parsedArgs.get(index));
+    return Double.parseDouble(getString(index));
   }
 
   public double getDouble(int index, double def) throws NumberFormatException {
-    return index < parsedArgs.size() ? Double.parseDouble(parsedArgs.get(index)) : def;
+    return index < argumentCount ? Double.parseDouble(getString(index)) : def;
   }
 
   public String[] getSlice(int index) {
+    String[] originalArgs = getOriginalArgs();
     String[] slice = new String[originalArgs.length - index];
     System.arraycopy(originalArgs, index, slice, 0, originalArgs.length - index);
     return slice;
   }
 
   public String[] getPaddedSlice(int index, int padding) {
+    String[] originalArgs = getOriginalArgs();
     String[] slice = new String[originalArgs.length - index + padding];
     System.arraycopy(originalArgs, index, slice, padding, originalArgs.length - index);
     return slice;
   }
 
   public String[] getParsedSlice(int index) {
-    String[] slice = new String[parsedArgs.size() - index];
-    System.arraycopy(parsedArgs.toArray(new String[parsedArgs.size()]), index, slice, 0, parsedArgs.size() - index);
-    return slice;
+    return getParsedPaddedSlice(index, 0);
   }
 
   public String[] getParsedPaddedSlice(int index, int padding) {
-    String[] slice = new String[parsedArgs.size() - index + padding];
-    System
-        .arraycopy(parsedArgs.toArray(new String[parsedArgs.size()]), index, slice, padding, parsedArgs.size() - index);
+    String[] slice = new String[argumentCount - index + padding];
+    for (int i = index; i < argumentCount; ++i) {
+      slice[i - index + padding] = getString(i);
+    }
     return slice;
   }
 
   public boolean hasFlag(char ch) {
-    return booleanFlags.contains(ch) || valueFlags.containsKey(ch);
+    return flags.contains(ch);
+  }
+
+  /**
+   * Get the flags that were given.
+   *
+   * @return the flags
+   */
+  public FlagSet getFlagSet() {
+    return flags;
   }
 
   public Set<Character> getFlags() {
+    Set<Character> booleanFlags = this.booleanFlags;
+    if (booleanFlags == null) {
+      this.booleanFlags = booleanFlags = FlagSet.toSet(flags.getMask() & ~flags.getValueMask());
+    }
     return booleanFlags;
   }
 
   public Map<Character, String> getValueFlags() {
+    Map<Character, String> valueFlags = this.valueFlags;
+    if (valueFlags == null) {
+      if (flags.getMask() == flags.getValueMask()) {
+        valueFlags = flags.asMap();
+      } else {
+        ImmutableMap.Builder<Character, String> builder = ImmutableMap.builder();
+        for (Character flag : FlagSet.toSet(flags.getValueMask())) {
+          builder.put(flag, flags.getValue(flag));
+        }
+        valueFlags = builder.build();
+      }
+      this.valueFlags = valueFlags;
+    }
     return valueFlags;
   }
 
   public Map<Character, String> getFlagsMap() {
-    return allFlags;
+    return flags.asMap();
   }
 
   public String getFlag(char ch) {
-    return valueFlags.get(ch);
+    return flags.getValue(ch);
   }
 
   public String getFlag(char ch, String def) {
-    final String value = valueFlags.get(ch);
+    final String value = flags.getValue(ch);
     if (value == null) {
       return def;
     }
@@ -336,11 +423,11 @@ public class CommandContext {
   }
 
   public int getFlagInteger(char ch) throws NumberFormatException {
-    return Integer.parseInt(valueFlags.get(ch));
+    return Integer.parseInt(flags.getValue(ch));
   }
 
   public int getFlagInteger(char ch, int def) throws NumberFormatException {
-    final String value = valueFlags.get(ch);
+    final String value = flags.getValue(ch);
     if (value == null) {
       return def;
     }
@@ -349,11 +436,11 @@ public class CommandContext {
   }
 
   public double getFlagDouble(char ch) throws NumberFormatException {
-    return Double.parseDouble(valueFlags.get(ch));
+    return Double.parseDouble(flags.getValue(ch));
   }
 
   public double getFlagDouble(char ch, double def) throws NumberFormatException {
-    final String value = valueFlags.get(ch);
+    final String value = flags.getValue(ch);
     if (value == null) {
       return def;
     }
@@ -362,7 +449,7 @@ public class CommandContext {
   }
 
   public int argsLength() {
-    return parsedArgs.size();
+    return argumentCount;
   }
 
   public Namespace getNamespace() {
@@ -371,48 +458,127 @@ public class CommandContext {
 
   public static class Builder {
 
-    private String[] arguments = new String[0];
-    private Set<Character> expectedValueFlags = ImmutableSet.of();
+    private String command = "_";
+    private String input = "";
+    private int argumentsStart = -1;
+    @Nullable
+    private String[] elements;
+    private long expectedValueMask = 0;
     private boolean allowHangingFlag = false;
     private Namespace namespace = new Namespace();
 
     public String[] getArguments() {
-      return Arrays.copyOf(arguments, arguments.length);
+      if (argumentsStart == -1) {
+        return new String[] { command };
+      }
+      String[] arguments = elements != null ? elements : split(input.substring(argumentsStart));
+      String[] newArguments = new String[arguments.length + 1];
+      newArguments[0] = command;
+      System.arraycopy(arguments, 0, newArguments, 1, arguments.length);
+      return newArguments;
+    }
+
+    /**
+     * Get the command that is being executed.
+     *
+     * @return the command, which is {@code _} by default
+     */
+    public String getCommand() {
+      return command;
+    }
+
+    /**
+     * Set the command that is being executed. The arguments are not changed.
+     *
+     * @param command the command
+     * @return this object
+     */
+    public Builder setCommand(String command) {
+      checkNotNull(command, "command");
+      this.command = command;
+      return this;
     }
 
     public Builder setArguments(String[] arguments) {
       checkNotNull(arguments, "arguments");
-      String[] newArguments = new String[arguments.length + 1];
-      newArguments[0] = "_";
-      System.arraycopy(arguments, 0, newArguments, 1, arguments.length);
-      this.arguments = newArguments;
+      if (arguments.length == 0) {
+        this.input = "";
+        this.argumentsStart = -1;
+        this.elements = null;
+      } else {
+        this.input = Joiner.on(' ').join(arguments);
+        this.argumentsStart = 0;
+        this.elements = Arrays.copyOf(arguments, arguments.length);
+      }
       return this;
     }
 
     public Builder setArguments(String arguments) {
-      checkNotNull(arguments, "arguments");
-      setArguments(split(arguments));
+      return setArguments(arguments, 0);
+    }
+
+    /**
+     * Set the arguments to the part of the given input that starts at
+     * the given offset. The input is not copied.
+     *
+     * @param input the input
+     * @param start the offset of the arguments in the input
+     * @return this object
+     */
+    public Builder setArguments(String input, int start) {
+      checkNotNull(input, "input");
+      checkPositionIndex(start, input.length(), "start");
+      this.input = input;
+      this.argumentsStart = start;
+      this.elements = null;
       return this;
     }
 
     public Builder setCommandAndArguments(String[] arguments) {
       checkNotNull(arguments, "arguments");
-      this.arguments = Arrays.copyOf(arguments, arguments.length);
+      checkArgument(arguments.length > 0, "arguments must contain the command");
+      this.command = arguments[0];
+      setArguments(Arrays.copyOfRange(arguments, 1, arguments.length));
       return this;
     }
 
     public Builder setCommandAndArguments(String arguments) {
       checkNotNull(arguments, "arguments");
-      setCommandAndArguments(split(arguments));
+      this.command = commandOf(arguments);
+      this.input = arguments;
+      this.argumentsStart = argumentsStartOf(arguments);
+      this.elements = null;
       return this;
     }
 
     public Set<Character> getExpectedValueFlags() {
-      return expectedValueFlags;
+      return FlagSet.toSet(expectedValueMask);
     }
 
     public Builder setExpectedValueFlags(Set<Character> expectedValueFlags) {
-      this.expectedValueFlags = ImmutableSet.copyOf(expectedValueFlags);
+      checkNotNull(expectedValueFlags, "expectedValueFlags");
+      this.expectedValueMask = FlagSet.maskOf(expectedValueFlags);
+      return this;
+    }
+
+    /**
+     * Get the value flags as a mask of {@link FlagSet} bits.
+     *
+     * @return the mask of value flags
+     */
+    public long getExpectedValueMask() {
+      return expectedValueMask;
+    }
+
+    /**
+     * Set the value flags as a mask of {@link FlagSet} bits.
+     *
+     * @param expectedValueMask the mask of value flags
+     * @return this object
+     * @see FlagSet#maskOf(Iterable)
+     */
+    public Builder setExpectedValueMask(long expectedValueMask) {
+      this.expectedValueMask = expectedValueMask;
       return this;
     }
 
@@ -436,7 +602,19 @@ public class CommandContext {
     }
 
     public CommandContext build() throws FlagException {
-      return new CommandContext(arguments, expectedValueFlags, allowHangingFlag, namespace);
+      if (elements == null) {
+        return new CommandContext(command, input, argumentsStart, null, expectedValueMask, allowHangingFlag,
+                                  namespace);
+      }
+
+      // Keep the boundaries of the given elements
+      CommandContext context = new CommandContext(command, input, argumentsStart, separatorsOf(elements),
+                                                  expectedValueMask, allowHangingFlag, namespace);
+      String[] originalArgs = new String[elements.length + 1];
+      originalArgs[0] = command;
+      System.arraycopy(elements, 0, originalArgs, 1, elements.length);
+      context.originalArgs = originalArgs;
+      return context;
     }
 
   }
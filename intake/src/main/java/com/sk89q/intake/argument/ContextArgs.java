@@ -43,20 +43,18 @@ class ContextArgs extends AbstractCommandArgs {
 
     @Override
     public String next() throws MissingArgumentException {
-        try {
-            return context.getString(position++);
-        } catch (IndexOutOfBoundsException ignored) {
-            throw new MissingArgumentException();
+        if (!hasNext()) {
+            throw MissingArgumentException.instance();
         }
+        return context.getString(position++);
     }
 
     @Override
     public String peek() throws MissingArgumentException {
-        try {
-            return context.getString(position);
-        } catch (IndexOutOfBoundsException ignored) {
-            throw new MissingArgumentException();
+        if (!hasNext()) {
+            throw MissingArgumentException.instance();
         }
+        return context.getString(position);
     }
 
     @Override
@@ -79,6 +77,11 @@ class ContextArgs extends AbstractCommandArgs {
         return context.getFlagsMap();
     }
 
+    @Override
+    FlagSet getFlagSet() {
+        return context.getFlagSet();
+    }
+
     @Override
     public Namespace getNamespace() {
         return context.getNamespace();
@@ -0,0 +1,429 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * An immutable set of flags, some of which have a value.
+ *
+ * <p>Each flag accepted by {@link Tokenizer#isFlagCharacter(char)} is
+ * stored as one bit of a {@code long} mask. The values of value flags are
+ * kept in a compact array in the order of their bits. Other characters
+ * can only come from a {@link CommandArgs} that was not created by the
+ * tokenizer; they have no bit and are kept in a separate map.</p>
+ */
+public final class FlagSet {
+
+    private static final String[] NO_VALUES = new String[0];
+    private static final int FLAG_COUNT = 53;
+    private static final FlagSet EMPTY = new FlagSet(0, 0, NO_VALUES, Collections.<Character, String>emptyMap());
+
+    private final long mask;
+    private final long valueMask;
+    private final String[] values;
+    private final Map<Character, String> unmasked;
+    @Nullable
+    private Map<Character, String> map;
+
+    private FlagSet(long mask, long valueMask, String[] values, Map<Character, String> unmasked) {
+        this.mask = mask;
+        this.valueMask = valueMask;
+        this.values = values;
+        this.unmasked = unmasked;
+    }
+
+    /**
+     * Get the bit index of a flag.
+     *
+     * @param flag the flag
+     * @return the index, or -1 if the character is not a valid flag
+     */
+    public static int indexOf(char flag) {
+        if (flag >= 'a' && flag <= 'z') {
+            return flag - 'a';
+        } else if (flag >= 'A' && flag <= 'Z') {
+            return 26 + flag - 'A';
+        } else if (flag == '?') {
+            return 52;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the flag at a bit index.
+     *
+     * @param index the index
+     * @return the flag
+     * @throws IndexOutOfBoundsException if there is no flag at the index
+     */
+    public static char flagAt(int index) {
+        if (index >= 0 && index < 26) {
+            return (char) ('a' + index);
+        } else if (index >= 26 && index < 52) {
+            return (char) ('A' + index - 26);
+        } else if (index == 52) {
+            return '?';
+        } else {
+            throw new IndexOutOfBoundsException("No flag at index " + index);
+        }
+    }
+
+    /**
+     * Get the mask with the bit of a flag set.
+     *
+     * @param flag the flag
+     * @return the mask, or 0 if the character is not a valid flag
+     */
+    public static long maskOf(char flag) {
+        int index = indexOf(flag);
+        return index != -1 ? 1L << index : 0;
+    }
+
+    /**
+     * Get the mask with the bits of the given flags set. Characters that
+     * are not valid flags are ignored.
+     *
+     * @param flags the flags
+     * @return the mask
+     */
+    public static long maskOf(Iterable<Character> flags) {
+        long mask = 0;
+        for (char flag : flags) {
+            mask |= maskOf(flag);
+        }
+        return mask;
+    }
+
+    /**
+     * Get the flags whose bits are set in a mask.
+     *
+     * @param mask the mask
+     * @return a set of flags
+     */
+    public static Set<Character> toSet(long mask) {
+        if (mask == 0) {
+            return ImmutableSet.of();
+        }
+
+        ImmutableSet.Builder<Character> builder = ImmutableSet.builder();
+        for (long bits = mask & allFlagsMask(); bits != 0; bits &= bits - 1) {
+            builder.add(flagAt(Long.numberOfTrailingZeros(bits)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get an empty set.
+     *
+     * @return an empty set
+     */
+    public static FlagSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get the flags of the given arguments as a set.
+     *
+     * <p>The set is shared with the arguments if they were created by this
+     * library. Otherwise it is copied from {@link CommandArgs#getFlags()}
+     * on every call.</p>
+     *
+     * @param arguments the arguments
+     * @return the set
+     */
+    public static FlagSet of(CommandArgs arguments) {
+        checkNotNull(arguments, "arguments");
+        if (arguments instanceof AbstractCommandArgs) {
+            return ((AbstractCommandArgs) arguments).getFlagSet();
+        } else {
+            return copyOf(arguments.getFlags());
+        }
+    }
+
+    /**
+     * Create a set from a map of flags, where flags with a null value
+     * have no value.
+     *
+     * @param flags the flags
+     * @return the set
+     */
+    public static FlagSet copyOf(Map<Character, String> flags) {
+        checkNotNull(flags, "flags");
+        if (flags.isEmpty()) {
+            return EMPTY;
+        }
+
+        Builder builder = new Builder();
+        for (Map.Entry<Character, String> entry : flags.entrySet()) {
+            if (entry.getValue() != null) {
+                builder.put(entry.getKey(), entry.getValue());
+            } else {
+                builder.add(entry.getKey());
+            }
+        }
+        return builder.build();
+    }
+
+    private static long allFlagsMask() {
+        return (1L << FLAG_COUNT) - 1;
+    }
+
+    /**
+     * Get whether there are no flags.
+     *
+     * @return true if there are no flags
+     */
+    public boolean isEmpty() {
+        return mask == 0 && unmasked.isEmpty();
+    }
+
+    /**
+     * Get the number of flags.
+     *
+     * @return the number of flags
+     */
+    public int size() {
+        return Long.bitCount(mask) + unmasked.size();
+    }
+
+    /**
+     * Get whether a flag is present, with or without a value.
+     *
+     * @param flag the flag
+     * @return true if the flag is present
+     */
+    public boolean contains(char flag) {
+        long bit = maskOf(flag);
+        return bit != 0 ? (mask & bit) != 0 : unmasked.containsKey(flag);
+    }
+
+    /**
+     * Get whether a flag is present with a value.
+     *
+     * @param flag the flag
+     * @return true if the flag has a value
+     */
+    public boolean hasValue(char flag) {
+        long bit = maskOf(flag);
+        return bit != 0 ? (valueMask & bit) != 0 : unmasked.get(flag) != null;
+    }
+
+    /**
+     * Get the value of a flag.
+     *
+     * @param flag the flag
+     * @return the value, or null if the flag is not present or has no value
+     */
+    @Nullable
+    public String getValue(char flag) {
+        long bit = maskOf(flag);
+        if (bit == 0) {
+            return unmasked.get(flag);
+        } else if ((valueMask & bit) == 0) {
+            return null;
+        }
+        return values[Long.bitCount(valueMask & (bit - 1))];
+    }
+
+    /**
+     * Get the mask of all flags that are present. Flags without a bit are
+     * not part of the mask.
+     *
+     * @return the mask
+     * @see #getUnmaskedFlags()
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Get the mask of the flags that have a value.
+     *
+     * @return the mask
+     */
+    public long getValueMask() {
+        return valueMask;
+    }
+
+    /**
+     * Get the flags that are present but have no bit because they are not
+     * accepted by {@link Tokenizer#isFlagCharacter(char)}.
+     *
+     * @return an immutable set, usually empty
+     */
+    public Set<Character> getUnmaskedFlags() {
+        return unmasked.keySet();
+    }
+
+    /**
+     * Get a map of all flags, where flags without a value are mapped to
+     * {@code "true"}. The map is created on the first call.
+     *
+     * @return an immutable map
+     */
+    public Map<Character, String> asMap() {
+        Map<Character, String> map = this.map;
+        if (map == null) {
+            ImmutableMap.Builder<Character, String> builder = ImmutableMap.builder();
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                char flag = flagAt(Long.numberOfTrailingZeros(bits));
+                String value = getValue(flag);
+                builder.put(flag, value != null ? value : "true");
+            }
+            for (Map.Entry<Character, String> entry : unmasked.entrySet()) {
+                builder.put(entry.getKey(), entry.getValue() != null ? entry.getValue() : "true");
+            }
+            this.map = map = builder.build();
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FlagSet)) {
+            return false;
+        }
+        FlagSet other = (FlagSet) o;
+        return mask == other.mask && valueMask == other.valueMask && unmasked.equals(other.unmasked)
+                && asMap().equals(other.asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (mask ^ (mask >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "FlagSet" + asMap();
+    }
+
+    /**
+     * Builds instances of {@link FlagSet}.
+     */
+    public static final class Builder {
+
+        private long mask;
+        private long valueMask;
+        @Nullable
+        private String[] values;
+        @Nullable
+        private Map<Character, String> unmasked;
+
+        /**
+         * Add a flag without a value. A value that the flag already has is
+         * kept.
+         *
+         * @param flag the flag
+         * @return this object
+         */
+        public Builder add(char flag) {
+            long bit = maskOf(flag);
+            if (bit != 0) {
+                mask |= bit;
+            } else if (!unmasked().containsKey(flag)) {
+                unmasked.put(flag, null);
+            }
+            return this;
+        }
+
+        /**
+         * Add a flag with a value, replacing any existing value.
+         *
+         * @param flag the flag
+         * @param value the value
+         * @return this object
+         */
+        public Builder put(char flag, String value) {
+            checkNotNull(value, "value");
+            long bit = maskOf(flag);
+            if (bit == 0) {
+                unmasked().put(flag, value);
+                return this;
+            }
+            if (values == null) {
+                values = new String[FLAG_COUNT];
+            }
+            values[Long.numberOfTrailingZeros(bit)] = value;
+            mask |= bit;
+            valueMask |= bit;
+            return this;
+        }
+
+        /**
+         * Get whether a flag was added with a value.
+         *
+         * @param flag the flag
+         * @return true if the flag has a value
+         */
+        public boolean hasValue(char flag) {
+            long bit = maskOf(flag);
+            return bit != 0 ? (valueMask & bit) != 0 : unmasked != null && unmasked.get(flag) != null;
+        }
+
+        /**
+         * Create a new set.
+         *
+         * @return a new set
+         */
+        public FlagSet build() {
+            if (mask == 0 && unmasked == null) {
+                return EMPTY;
+            }
+
+            String[] compact = NO_VALUES;
+            if (valueMask != 0) {
+                compact = new String[Long.bitCount(valueMask)];
+                int i = 0;
+                for (long bits = valueMask; bits != 0; bits &= bits - 1) {
+                    compact[i++] = values[Long.numberOfTrailingZeros(bits)];
+                }
+            }
+            Map<Character, String> unmasked = this.unmasked != null
+                    ? Collections.unmodifiableMap(new LinkedHashMap<Character, String>(this.unmasked))
+                    : Collections.<Character, String>emptyMap();
+            return new FlagSet(mask, valueMask, compact, unmasked);
+        }
+
+        private Map<Character, String> unmasked() {
+            if (unmasked == null) {
+                unmasked = new LinkedHashMap<Character, String>();
+            }
+            return unmasked;
+        }
+
+    }
+
+}
@@ -29,6 +29,8 @@ import javax.annotation.Nullable;
  */
 public class MissingArgumentException extends ArgumentException {
 
+    private static final MissingArgumentException INSTANCE = new MissingArgumentException(null, null, false);
+
     @Nullable
     private final Parameter parameter;
 
@@ -45,6 +47,24 @@ public class MissingArgumentException extends ArgumentException {
         this.parameter = parameter;
     }
 
+    private MissingArgumentException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+        this.parameter = null;
+    }
+
+    /**
+     * Get the shared instance that is thrown when the arguments have run
+     * out. It has no parameter, no cause and no stack trace, so throwing
+     * it is cheap. {@link com.sk89q.intake.parametric.ArgumentParser}
+     * replaces it with an exception that names the parameter before it
+     * reaches the user.
+     *
+     * @return the shared instance
+     */
+    public static MissingArgumentException instance() {
+        return INSTANCE;
+    }
+
     @Nullable
     public Parameter getParameter() {
         return parameter;
@@ -0,0 +1,95 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Provides a view of at most one argument that shares the flags and the
+ * namespace of other arguments.
+ */
+class SingleArgs extends AbstractCommandArgs {
+
+    @Nullable
+    private final String argument;
+    private final CommandArgs parent;
+    private int position = 0;
+
+    SingleArgs(@Nullable String argument, CommandArgs parent) {
+        checkNotNull(parent, "parent");
+        this.argument = argument;
+        this.parent = parent;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < size();
+    }
+
+    @Override
+    public String next() throws MissingArgumentException {
+        String next = peek();
+        position++;
+        return next;
+    }
+
+    @Override
+    public String peek() throws MissingArgumentException {
+        if (!hasNext()) {
+            throw MissingArgumentException.instance();
+        }
+        return argument;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public int size() {
+        return argument != null ? 1 : 0;
+    }
+
+    @Override
+    public void markConsumed() {
+        position = size();
+    }
+
+    @Override
+    public Map<Character, String> getFlags() {
+        return parent.getFlags();
+    }
+
+    @Override
+    FlagSet getFlagSet() {
+        return FlagSet.of(parent);
+    }
+
+    @Override
+    public Namespace getNamespace() {
+        return parent.getNamespace();
+    }
+
+}
@@ -53,20 +53,18 @@ class StringListArgs extends AbstractCommandArgs {
 
     @Override
     public String next() throws MissingArgumentException {
-        try {
-            return arguments.get(position++);
-        } catch (IndexOutOfBoundsException ignored) {
-            throw new MissingArgumentException();
+        if (!hasNext()) {
+            throw MissingArgumentException.instance();
         }
+        return arguments.get(position++);
     }
 
     @Override
     public String peek() throws MissingArgumentException {
-        try {
-            return arguments.get(position);
-        } catch (IndexOutOfBoundsException ignored) {
-            throw new MissingArgumentException();
+        if (!hasNext()) {
+            throw MissingArgumentException.instance();
         }
+        return arguments.get(position);
     }
 
     @Override
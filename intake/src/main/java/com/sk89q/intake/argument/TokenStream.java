@@ -0,0 +1,127 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
+/**
+ * A cursor over the input of a command that is shared by every level of
+ * dispatch, so that the input is only read once no matter how deeply
+ * commands are nested.
+ *
+ * <p>Each call to {@link #next()} reads the word at the cursor and moves
+ * the cursor past it and the single space that follows it. The rest of the
+ * input is never copied; it is passed on to the next command as-is.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class TokenStream {
+
+    private final String input;
+    private int position;
+
+    /**
+     * Create a new stream positioned at the start of the given input.
+     *
+     * @param input the input
+     */
+    public TokenStream(String input) {
+        this(input, 0);
+    }
+
+    /**
+     * Create a new stream positioned at the given offset.
+     *
+     * @param input the input
+     * @param position the offset
+     */
+    public TokenStream(String input, int position) {
+        checkNotNull(input, "input");
+        checkPositionIndex(position, input.length(), "position");
+        this.input = input;
+        this.position = position;
+    }
+
+    /**
+     * Get the full input, including what has already been read.
+     *
+     * @return the input
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Get the offset of the cursor in the input.
+     *
+     * @return the offset
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Move the cursor to the given offset, such as one previously
+     * returned by {@link #getPosition()}.
+     *
+     * @param position the offset
+     */
+    public void setPosition(int position) {
+        checkPositionIndex(position, input.length(), "position");
+        this.position = position;
+    }
+
+    /**
+     * Read the word at the cursor and advance past it.
+     *
+     * <p>The word ends at the next space. If the cursor is on a space or at
+     * the end of the input, an empty string is returned.</p>
+     *
+     * @return the word
+     */
+    public String next() {
+        int end = input.indexOf(' ', position);
+        String token;
+        if (end == -1) {
+            token = input.substring(position);
+            position = input.length();
+        } else {
+            token = input.substring(position, end);
+            position = end + 1;
+        }
+        return token;
+    }
+
+    /**
+     * Get the input that has not been read yet.
+     *
+     * @return the remaining input
+     */
+    public String remaining() {
+        return input.substring(position);
+    }
+
+    @Override
+    public String toString() {
+        return remaining();
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
+import java.util.BitSet;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reads the arguments of a command from its input in a single pass, without
+ * copying the input or splitting it into intermediate arrays.
+ *
+ * <p>Arguments are separated by one or more spaces. An argument that starts
+ * with a single or double quote continues until the same quote character is
+ * found at the end of a word, which allows the argument to contain spaces.
+ * If the quote is never closed, the word is read as a normal argument. Empty
+ * quoted arguments are skipped.</p>
+ *
+ * <p>Input that was already split into an array of arguments can be read
+ * by joining the elements with spaces and passing the offsets of the
+ * joining spaces as separators. Only those offsets then separate
+ * arguments, so spaces inside an element are kept.</p>
+ *
+ * <p>The tokenizer is a cursor: every successful call to {@link #next()}
+ * moves it to the next argument, whose bounds within the input can then be
+ * read without creating a string. Instances are not thread-safe.</p>
+ */
+public final class Tokenizer {
+
+    private final CharSequence input;
+    private final int start;
+    private final int end;
+    @Nullable
+    private final BitSet separators;
+    private int position;
+    private int tokenStart = -1;
+    private int tokenEnd = -1;
+    private int valueStart = -1;
+    private int valueEnd = -1;
+    private boolean quoted;
+
+    /**
+     * Create a new tokenizer over the whole input.
+     *
+     * @param input the input
+     */
+    public Tokenizer(CharSequence input) {
+        this(input, 0);
+    }
+
+    /**
+     * Create a new tokenizer over the input starting at the given offset.
+     *
+     * @param input the input
+     * @param start the offset of the first character to read
+     */
+    public Tokenizer(CharSequence input, int start) {
+        this(input, start, null);
+    }
+
+    /**
+     * Create a new tokenizer over the input starting at the given offset,
+     * where only the given offsets separate arguments.
+     *
+     * @param input the input
+     * @param start the offset of the first character to read
+     * @param separators the offsets of the separating spaces, or null to
+     *                   separate arguments at every space
+     */
+    public Tokenizer(CharSequence input, int start, @Nullable BitSet separators) {
+        checkNotNull(input, "input");
+        checkPositionIndex(start, input.length(), "start");
+        this.input = input;
+        this.start = start;
+        this.end = input.length();
+        this.position = start;
+        this.separators = separators;
+    }
+
+    private boolean isSeparator(int index) {
+        return separators != null ? separators.get(index) : input.charAt(index) == ' ';
+    }
+
+    /**
+     * Get the input that is being read.
+     *
+     * @return the input
+     */
+    public CharSequence getInput() {
+        return input;
+    }
+
+    /**
+     * Get the offset at which the next search for an argument will begin.
+     *
+     * @return the offset
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Return whether the read input is empty or ends with a separator, in
+     * which case the user has not started typing the last argument yet.
+     *
+     * @return true if the input is hanging
+     */
+    public boolean isHanging() {
+        return start == end || isSeparator(end - 1);
+    }
+
+    /**
+     * Advance to the next argument.
+     *
+     * @return true if there was another argument, false if the end of the input has been reached
+     */
+    public boolean next() {
+        while (true) {
+            while (position < end && isSeparator(position)) {
+                position++;
+            }
+
+            if (position == end) {
+                tokenStart = tokenEnd = valueStart = valueEnd = end;
+                quoted = false;
+                return false;
+            }
+
+            char first = input.charAt(position);
+            if (first == '"' || first == '\'') {
+                int close = findClosingQuote(first, position);
+                if (close != -1) {
+                    tokenStart = position;
+                    valueStart = position + 1;
+                    valueEnd = close;
+                    tokenEnd = close + 1;
+                    quoted = true;
+                    position = tokenEnd;
+
+                    if (valueStart == valueEnd) {
+                        continue; // Empty quoted argument
+                    }
+
+                    return true;
+                }
+            }
+
+            int wordEnd = position;
+            while (wordEnd < end && !isSeparator(wordEnd)) {
+                wordEnd++;
+            }
+
+            tokenStart = valueStart = position;
+            tokenEnd = valueEnd = wordEnd;
+            quoted = false;
+            position = wordEnd;
+            return true;
+        }
+    }
+
+    private int findClosingQuote(char quote, int from) {
+        for (int i = from + 1; i < end; i++) {
+            if (input.charAt(i) == quote
+                    && !isSeparator(i - 1)
+                    && (i + 1 == end || isSeparator(i + 1))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the offset of the first character of the current argument,
+     * including any opening quote.
+     *
+     * @return the offset
+     */
+    public int getTokenStart() {
+        return tokenStart;
+    }
+
+    /**
+     * Get the offset after the last character of the current argument,
+     * including any closing quote.
+     *
+     * @return the offset
+     */
+    public int getTokenEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * Get the offset of the first character of the value of the current
+     * argument, excluding quotes.
+     *
+     * @return the offset
+     */
+    public int getValueStart() {
+        return valueStart;
+    }
+
+    /**
+     * Get the offset after the last character of the value of the current
+     * argument, excluding quotes.
+     *
+     * @return the offset
+     */
+    public int getValueEnd() {
+        return valueEnd;
+    }
+
+    /**
+     * Return whether the current argument was quoted.
+     *
+     * @return true if quoted
+     */
+    public boolean isQuoted() {
+        return quoted;
+    }
+
+    /**
+     * Get the value of the current argument as a string.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        return input.subSequence(valueStart, valueEnd).toString();
+    }
+
+    /**
+     * Return whether the current argument is a group of flags, such
+     * as {@code -f} or {@code -fv}.
+     *
+     * @return true if the argument is a flag
+     */
+    public boolean isFlag() {
+        return isFlag(input, valueStart, valueEnd);
+    }
+
+    /**
+     * Return whether the current argument is the unquoted {@code --}, after
+     * which no more flags should be parsed.
+     *
+     * @return true if the argument terminates flag parsing
+     */
+    public boolean isFlagTerminator() {
+        return !quoted
+                && valueEnd - valueStart == 2
+                && input.charAt(valueStart) == '-'
+                && input.charAt(valueStart + 1) == '-';
+    }
+
+    /**
+     * Return whether the given range of characters is a group of flags,
+     * consisting of a dash followed by one or more letters or question marks.
+     *
+     * @param input the input
+     * @param start the offset of the first character
+     * @param end the offset after the last character
+     * @return true if the range is a flag
+     */
+    public static boolean isFlag(CharSequence input, int start, int end) {
+        if (end - start < 2 || input.charAt(start) != '-') {
+            return false;
+        }
+
+        for (int i = start + 1; i < end; i++) {
+            if (!isFlagCharacter(input.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return whether the given character may be used as the name of a flag.
+     *
+     * @param c the character
+     * @return true if the character is a valid flag
+     */
+    public static boolean isFlagCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '?';
+    }
+
+}
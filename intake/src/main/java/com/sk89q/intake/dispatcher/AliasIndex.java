@@ -0,0 +1,268 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable, case-insensitive index of aliases that is stored as a
+ * compressed radix trie.
+ *
+ * <p>Aliases are folded to lower case one character at a time, both when
+ * the index is built and when it is queried, so that lookups do not have
+ * to create a lower case copy of their input. Exact lookups take time in
+ * the length of the alias and finding all aliases that start with a prefix
+ * takes time in the length of the prefix, regardless of the number of
+ * aliases in the index.</p>
+ *
+ * <p>The trie is laid out in flat arrays. Every node covers the range of
+ * aliases, in sorted order, that start with the node's prefix, so that the
+ * values for a prefix can be returned as a view of the sorted values.</p>
+ *
+ * @param <V> the type of value
+ */
+final class AliasIndex<V> {
+
+    private final String[] keys;
+    private final ImmutableList<V> values;
+    private final int[] depth;
+    private final int[] low;
+    private final int[] high;
+    private final char[] label;
+    private final int[] firstChild;
+    private final int[] childCount;
+
+    private AliasIndex(String[] keys, ImmutableList<V> values) {
+        this.keys = keys;
+        this.values = values;
+
+        int capacity = keys.length * 2 + 1;
+        int[] depth = new int[capacity];
+        int[] low = new int[capacity];
+        int[] high = new int[capacity];
+        char[] label = new char[capacity];
+        int[] firstChild = new int[capacity];
+        int[] childCount = new int[capacity];
+
+        // The root covers every key; children are added breadth first so
+        // that the children of each node are stored next to each other
+        high[0] = keys.length;
+        int count = 1;
+
+        for (int node = 0; node < count; node++) {
+            int d = depth[node];
+            int i = low[node];
+            int end = high[node];
+            firstChild[node] = count;
+
+            // The key that ends at this node sorts first in its range
+            if (i < end && keys[i].length() == d) {
+                i++;
+            }
+
+            while (i < end) {
+                char c = keys[i].charAt(d);
+                int j = i + 1;
+                while (j < end && keys[j].charAt(d) == c) {
+                    j++;
+                }
+
+                depth[count] = commonPrefixLength(keys[i], keys[j - 1]);
+                low[count] = i;
+                high[count] = j;
+                label[count] = c;
+                count++;
+                i = j;
+            }
+
+            childCount[node] = count - firstChild[node];
+        }
+
+        this.depth = Arrays.copyOf(depth, count);
+        this.low = Arrays.copyOf(low, count);
+        this.high = Arrays.copyOf(high, count);
+        this.label = Arrays.copyOf(label, count);
+        this.firstChild = Arrays.copyOf(firstChild, count);
+        this.childCount = Arrays.copyOf(childCount, count);
+    }
+
+    /**
+     * Get the number of aliases in the index.
+     *
+     * @return the number of aliases
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Get the value for the given alias, ignoring case.
+     *
+     * @param alias the alias
+     * @return the value, or null if the alias is not in the index
+     */
+    @Nullable
+    public V get(CharSequence alias) {
+        checkNotNull(alias, "alias");
+        int node = find(alias, true);
+        if (node != -1 && low[node] < high[node] && keys[low[node]].length() == alias.length()) {
+            return values.get(low[node]);
+        }
+        return null;
+    }
+
+    /**
+     * Get the values for every alias that starts with the given prefix,
+     * ignoring case, in the order of their aliases.
+     *
+     * <p>A value that is registered under several matching aliases is
+     * returned once for each of them.</p>
+     *
+     * @param prefix the prefix
+     * @return an immutable list of values
+     */
+    public List<V> getByPrefix(CharSequence prefix) {
+        checkNotNull(prefix, "prefix");
+        int node = find(prefix, false);
+        if (node == -1) {
+            return ImmutableList.of();
+        }
+        return values.subList(low[node], high[node]);
+    }
+
+    /**
+     * Find the node whose range contains every key that starts with the
+     * given string.
+     *
+     * @param s the string
+     * @param exact true if the string must end exactly at the returned node
+     * @return the node, or -1 if no key starts with the string
+     */
+    private int find(CharSequence s, boolean exact) {
+        int length = s.length();
+        int node = 0;
+        int d = 0;
+
+        while (d < length) {
+            int child = findChild(node, fold(s.charAt(d)));
+            if (child == -1) {
+                return -1;
+            }
+
+            String key = keys[low[child]];
+            int childDepth = depth[child];
+            for (int i = d + 1; i < childDepth; i++) {
+                if (i == length) {
+                    return exact ? -1 : child;
+                }
+                if (fold(s.charAt(i)) != key.charAt(i)) {
+                    return -1;
+                }
+            }
+
+            node = child;
+            d = childDepth;
+        }
+
+        return node;
+    }
+
+    private int findChild(int node, char c) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midLabel = label[mid];
+            if (midLabel < c) {
+                lo = mid + 1;
+            } else if (midLabel > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Fold the given alias to the form in which it is stored in the index.
+     *
+     * @param alias the alias
+     * @return the folded alias
+     */
+    public static String fold(String alias) {
+        char[] chars = null;
+        for (int i = 0; i < alias.length(); i++) {
+            char c = alias.charAt(i);
+            char folded = fold(c);
+            if (folded != c) {
+                if (chars == null) {
+                    chars = alias.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return chars != null ? new String(chars) : alias;
+    }
+
+    /**
+     * Build a new index from the given aliases and their values.
+     *
+     * @param entries a map of aliases to values
+     * @param <V> the type of value
+     * @return a new index
+     * @throws IllegalArgumentException thrown if two aliases only differ in case
+     */
+    public static <V> AliasIndex<V> build(Map<String, ? extends V> entries) {
+        checkNotNull(entries, "entries");
+
+        TreeMap<String, V> sorted = new TreeMap<String, V>();
+        for (Map.Entry<String, ? extends V> entry : entries.entrySet()) {
+            String key = fold(entry.getKey());
+            if (sorted.put(key, entry.getValue()) != null) {
+                throw new IllegalArgumentException("The alias '" + key + "' was given more than once");
+            }
+        }
+
+        return new AliasIndex<V>(sorted.keySet().toArray(new String[sorted.size()]), ImmutableList.copyOf(sorted.values()));
+    }
+
+}
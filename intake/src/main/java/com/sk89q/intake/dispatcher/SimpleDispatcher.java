@@ -19,9 +19,12 @@
 
 package com.sk89q.intake.dispatcher;
 
-import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.CommandException;
 import com.sk89q.intake.CommandMapping;
@@ -33,28 +36,35 @@ import com.sk89q.intake.ImmutableParameter;
 import com.sk89q.intake.InvocationCommandException;
 import com.sk89q.intake.OptionType;
 import com.sk89q.intake.Parameter;
-import com.sk89q.intake.argument.CommandContext;
 import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.argument.TokenStream;
+import com.sk89q.intake.parametric.AbstractParametricCallable;
 import com.sk89q.intake.util.auth.AuthorizationException;
+import com.sk89q.intake.util.auth.PermissionIndex;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nullable;
 
 /**
  * A simple implementation of {@link Dispatcher}.
  */
-public class SimpleDispatcher implements Dispatcher {
+public class SimpleDispatcher implements Dispatcher, PermissionIndex.Indexable {
 
-    private final Map<String, CommandMapping> commands = new HashMap<String, CommandMapping>();
+    private final Map<String, CommandMapping> commands = new LinkedHashMap<String, CommandMapping>();
+    private final Set<String> aliases = Collections.unmodifiableSet(commands.keySet());
     private final Description description;
+    private volatile Snapshot snapshot;
+    private final Set<SimpleDispatcher> parents = Collections.newSetFromMap(new MapMaker().weakKeys().<SimpleDispatcher, Boolean>makeMap());
+    private final AtomicLong permissionVersion = new AtomicLong();
+    private volatile VersionedIndex permissionIndex;
 
     @Nullable
     private CommandMapping defaultMapping;
@@ -101,6 +111,7 @@ public class SimpleDispatcher implements Dispatcher {
             }
 
             this.defaultMapping = mapping;
+            commandAdded(callable);
 
             // If this command is marked as "default only" we should skip registering the aliases.
             if (defaultDefinition.defaultOnly()) {
@@ -110,7 +121,7 @@ public class SimpleDispatcher implements Dispatcher {
 
         // Check for replacements
         for (String alias : aliases) {
-            String lower = alias.toLowerCase();
+            String lower = AliasIndex.fold(alias);
             if (commands.containsKey(lower)) {
                 throw new IllegalArgumentException(
                     "Can't add the command '" + alias + "' because SimpleDispatcher does not support replacing commands");
@@ -118,78 +129,162 @@ public class SimpleDispatcher implements Dispatcher {
         }
 
         for (String alias : aliases) {
-            String lower = alias.toLowerCase();
+            String lower = AliasIndex.fold(alias);
             commands.put(lower, mapping);
         }
+
+        snapshot = null;
+        commandAdded(callable);
+    }
+
+    /**
+     * Link a newly registered dispatcher to this one and mark the
+     * permission index of this dispatcher and its parents as out of date.
+     *
+     * @param callable the registered command
+     */
+    private void commandAdded(CommandCallable callable) {
+        if (callable instanceof SimpleDispatcher) {
+            ((SimpleDispatcher) callable).parents.add(this);
+        }
+        invalidatePermissionIndex();
+    }
+
+    private void invalidatePermissionIndex() {
+        permissionVersion.incrementAndGet();
+        for (SimpleDispatcher parent : parents) {
+            parent.invalidatePermissionIndex();
+        }
+    }
+
+    /**
+     * Get the snapshot of the registered commands, creating it if commands
+     * have been registered since it was last created.
+     *
+     * @return the snapshot
+     */
+    private Snapshot getSnapshot() {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            snapshot = new Snapshot(commands);
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    private AliasIndex<CommandMapping> getIndex() {
+        return getSnapshot().index;
     }
 
     @Override
     public Set<CommandMapping> getCommands() {
-        return Collections.unmodifiableSet(new HashSet<CommandMapping>(commands.values()));
+        return getSnapshot().commands;
     }
     
     @Override
     public Set<String> getAliases() {
-        return Collections.unmodifiableSet(commands.keySet());
+        return aliases;
     }
     
     @Override
     public Set<String> getPrimaryAliases() {
-        Set<String> aliases = new HashSet<String>();
-        for (CommandMapping mapping : getCommands()) {
-            aliases.add(mapping.getPrimaryAlias());
-        }
-        return Collections.unmodifiableSet(aliases);
+        return getSnapshot().primaryAliases;
     }
 
     @Override
     public boolean contains(String alias) {
-        return commands.containsKey(alias.toLowerCase());
+        return getIndex().get(alias) != null;
     }
 
     @Override
     public CommandMapping get(String alias) {
-        return commands.get(alias.toLowerCase());
+        return getIndex().get(alias);
     }
 
     @Override
     public boolean call(String arguments, Namespace namespace, List<String> parentCommands) throws CommandException, InvocationCommandException, AuthorizationException {
-        // We have permission for this command if we have permissions for subcommands
-        if (!testPermission(namespace)) {
-            throw new AuthorizationException();
-        }
+        return call(new TokenStream(arguments), namespace, parentCommands);
+    }
 
-        String[] split = CommandContext.split(arguments);
-        Set<String> aliases = getPrimaryAliases();
+    /**
+     * Execute the command, reading the subcommand from the given stream.
+     *
+     * <p>This behaves like {@link #call(String, Namespace, List)}, except
+     * that the input is not copied for every level of nested commands.
+     * The stream is positioned after the subcommand when it is passed on
+     * to the matching command.</p>
+     *
+     * @param arguments The arguments
+     * @param namespace Additional values used for execution
+     * @param parentCommands The list of parent commands
+     * @return Whether the command succeeded
+     * @throws CommandException If there is an error with the command
+     * @throws InvocationCommandException If there is an error with executing the command
+     * @throws AuthorizationException If there is a authorization error
+     */
+    public boolean call(TokenStream arguments, Namespace namespace, List<String> parentCommands) throws CommandException, InvocationCommandException, AuthorizationException {
+        CommandMapping mapping = null;
+        List<String> subParents = parentCommands;
 
-        if (aliases.isEmpty()) {
-            throw new NoSubcommandsException(this, parentCommands);
-        } else if (split.length > 0) {
-            String subCommand = split[0];
-            CommandMapping mapping = get(subCommand);
+        if (!commands.isEmpty()) {
+            int start = arguments.getPosition();
+            String subCommand = arguments.next();
+            mapping = get(subCommand);
 
             if (mapping != null) {
-                String subArguments = Joiner.on(" ").join(Arrays.copyOfRange(split, 1, split.length));
-                List<String> subParents = ImmutableList.<String>builder().addAll(parentCommands).add(subCommand).build();
-
-                execute(mapping, subArguments, namespace, subParents);
-                return true;
+                subParents = ImmutableList.<String>builder().addAll(parentCommands).add(subCommand).build();
+            } else if (this.defaultMapping != null) {
+                arguments.setPosition(start);
+                mapping = defaultMapping;
             }
+        }
 
-            if (this.defaultMapping != null) {
-                execute(defaultMapping, arguments, namespace, parentCommands);
-                return true;
-            }
+        // We have permission for this command if we have permissions for subcommands
+        if ((mapping == null || !canSkipPermission(mapping.getCallable())) && !testPermission(namespace)) {
+            throw new AuthorizationException();
+        }
+
+        if (commands.isEmpty()) {
+            throw new NoSubcommandsException(this, parentCommands);
         }
 
-        throw new SubcommandRequiredException(this, parentCommands);
+        if (mapping == null) {
+            throw new SubcommandRequiredException(this, parentCommands);
+        }
+
+        execute(mapping, arguments, namespace, subParents);
+        return true;
+    }
+
+    /**
+     * Return whether the permission of this dispatcher doesn't have to be
+     * tested on the way to the given command. That is the case if the
+     * command tests its own permission when it is called, and this
+     * dispatcher's permission is the union of its commands' permissions,
+     * so the command's own permission is at least as strict. A subclass
+     * that overrides {@link #testPermission(Namespace)} is always tested.
+     *
+     * @param callable the command
+     * @return true if the permission of this dispatcher can be skipped
+     */
+    private boolean canSkipPermission(CommandCallable callable) {
+        return (callable instanceof SimpleDispatcher || callable instanceof AbstractParametricCallable)
+                && PermissionIndex.usesIndex(this);
     }
 
-    private void execute(CommandMapping commandMapping, String arguments, Namespace namespace, List<String> parents)
+    private void execute(CommandMapping commandMapping, TokenStream arguments, Namespace namespace, List<String> parents)
         throws InvocationCommandException, CommandException, AuthorizationException {
 
+        CommandCallable callable = commandMapping.getCallable();
+
         try {
-            commandMapping.getCallable().call(arguments, namespace, parents);
+            if (callable instanceof SimpleDispatcher) {
+                ((SimpleDispatcher) callable).call(arguments, namespace, parents);
+            } else if (callable instanceof AbstractParametricCallable) {
+                ((AbstractParametricCallable) callable).call(arguments, namespace, parents);
+            } else {
+                callable.call(arguments.remaining(), namespace, parents);
+            }
         } catch (AuthorizationException e) {
             throw e;
         } catch (CommandException e) {
@@ -201,31 +296,106 @@ public class SimpleDispatcher implements Dispatcher {
         }
     }
 
+    /**
+     * Execute the command without blocking while the command is invoked.
+     *
+     * <p>The subcommand is looked up and the arguments of parametric
+     * commands are parsed in the calling thread. The command itself is
+     * invoked by the {@link com.sk89q.intake.parametric.CommandExecutor}
+     * of its builder, and the returned future completes when it is done.
+     * Errors are not thrown, but fail the future with the exceptions that
+     * {@link #call(String, Namespace, List)} would throw. Commands that
+     * do not support asynchronous invocation are called synchronously.</p>
+     *
+     * @param arguments The arguments
+     * @param namespace Additional values used for execution
+     * @param parentCommands The list of parent commands
+     * @return A future that completes with whether the command succeeded
+     */
+    public ListenableFuture<Boolean> callAsync(String arguments, Namespace namespace, List<String> parentCommands) {
+        return callAsync(new TokenStream(arguments), namespace, parentCommands);
+    }
+
+    /**
+     * Execute the command without blocking while the command is invoked,
+     * reading the subcommand from the given stream.
+     *
+     * @param arguments The arguments
+     * @param namespace Additional values used for execution
+     * @param parentCommands The list of parent commands
+     * @return A future that completes with whether the command succeeded
+     * @see #callAsync(String, Namespace, List)
+     */
+    public ListenableFuture<Boolean> callAsync(TokenStream arguments, Namespace namespace, List<String> parentCommands) {
+        CommandMapping mapping = null;
+        List<String> subParents = parentCommands;
+
+        if (!commands.isEmpty()) {
+            int start = arguments.getPosition();
+            String subCommand = arguments.next();
+            mapping = get(subCommand);
+
+            if (mapping != null) {
+                subParents = ImmutableList.<String>builder().addAll(parentCommands).add(subCommand).build();
+            } else if (this.defaultMapping != null) {
+                arguments.setPosition(start);
+                mapping = defaultMapping;
+            }
+        }
+
+        // We have permission for this command if we have permissions for subcommands
+        if ((mapping == null || !canSkipPermission(mapping.getCallable())) && !testPermission(namespace)) {
+            return Futures.immediateFailedFuture(new AuthorizationException());
+        }
+
+        if (commands.isEmpty()) {
+            return Futures.immediateFailedFuture(new NoSubcommandsException(this, parentCommands));
+        }
+
+        if (mapping == null) {
+            return Futures.immediateFailedFuture(new SubcommandRequiredException(this, parentCommands));
+        }
+
+        return executeAsync(mapping, arguments, namespace, subParents);
+    }
+
+    private ListenableFuture<Boolean> executeAsync(CommandMapping commandMapping, TokenStream arguments, Namespace namespace, List<String> parents) {
+        CommandCallable callable = commandMapping.getCallable();
+
+        if (callable instanceof SimpleDispatcher) {
+            return ((SimpleDispatcher) callable).callAsync(arguments, namespace, parents);
+        } else if (callable instanceof AbstractParametricCallable) {
+            return ((AbstractParametricCallable) callable).callAsync(arguments, namespace, parents);
+        }
+
+        try {
+            execute(commandMapping, arguments, namespace, parents);
+            return Futures.immediateFuture(true);
+        } catch (Exception e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
     @Override
     public List<String> getSuggestions(String arguments, Namespace locals) throws CommandException {
-        String[] split = CommandContext.split(arguments);
-
-        if (split.length <= 1) {
-            String prefix = split.length > 0 ? split[0] : "";
+        int separator = arguments.indexOf(' ');
 
+        if (separator == -1) {
             List<String> suggestions = new ArrayList<String>();
+            List<CommandMapping> matches = getIndex().getByPrefix(arguments);
+            Set<CommandMapping> seen = matches.size() > 1 ? new HashSet<CommandMapping>() : null;
 
-            for (CommandMapping mapping : getCommands()) {
-                if (mapping.getCallable().testPermission(locals)) {
-                    for (String alias : mapping.getAllAliases()) {
-                        if (prefix.isEmpty() || alias.startsWith(arguments)) {
-                            suggestions.add(mapping.getPrimaryAlias());
-                            break;
-                        }
-                    }
+            for (CommandMapping mapping : matches) {
+                if ((seen == null || seen.add(mapping)) && mapping.getCallable().testPermission(locals)) {
+                    suggestions.add(mapping.getPrimaryAlias());
                 }
             }
 
             return suggestions;
         } else {
-            String subCommand = split[0];
+            String subCommand = arguments.substring(0, separator);
             CommandMapping mapping = get(subCommand);
-            String passedArguments = Joiner.on(" ").join(Arrays.copyOfRange(split, 1, split.length));
+            String passedArguments = arguments.substring(separator + 1);
 
             if (mapping != null) {
                 return mapping.getCallable().getSuggestions(passedArguments, locals);
@@ -242,13 +412,61 @@ public class SimpleDispatcher implements Dispatcher {
 
     @Override
     public boolean testPermission(Namespace locals) {
-        for (CommandMapping mapping : getCommands()) {
-            if (mapping.getCallable().testPermission(locals)) {
-                return true;
+        return getPermissionIndex().testPermission(locals);
+    }
+
+    @Override
+    public PermissionIndex getPermissionIndex() {
+        VersionedIndex index = this.permissionIndex;
+        // Read the version first, so a change made while building makes the new index out of date
+        long version = permissionVersion.get();
+        if (index == null || index.version != version) {
+            PermissionIndex.Builder builder = PermissionIndex.builder();
+            for (CommandMapping mapping : getCommands()) {
+                builder.addCallable(mapping.getCallable());
+            }
+            if (defaultMapping != null) {
+                builder.addCallable(defaultMapping.getCallable());
             }
+            index = new VersionedIndex(version, builder.build());
+            this.permissionIndex = index;
         }
-        return defaultMapping != null && defaultMapping.getCallable().testPermission(locals);
+        return index.index;
+    }
 
+    /**
+     * An immutable view of the registered commands that is created once
+     * after registration and shared by every call until the next one.
+     */
+    private static final class Snapshot {
+        private final AliasIndex<CommandMapping> index;
+        private final ImmutableSet<CommandMapping> commands;
+        private final ImmutableSet<String> primaryAliases;
+
+        private Snapshot(Map<String, CommandMapping> commands) {
+            this.index = AliasIndex.build(commands);
+            this.commands = ImmutableSet.copyOf(commands.values());
+            ImmutableSet.Builder<String> primaryAliases = ImmutableSet.builder();
+            for (CommandMapping mapping : this.commands) {
+                primaryAliases.add(mapping.getPrimaryAlias());
+            }
+            this.primaryAliases = primaryAliases.build();
+        }
+    }
+
+    /**
+     * A permission index and the version of this dispatcher it was built
+     * for. The version changes whenever a command is registered with this
+     * dispatcher or with a dispatcher below it.
+     */
+    private static final class VersionedIndex {
+        private final long version;
+        private final PermissionIndex index;
+
+        private VersionedIndex(long version, PermissionIndex index) {
+            this.version = version;
+            this.index = index;
+        }
     }
 
 }
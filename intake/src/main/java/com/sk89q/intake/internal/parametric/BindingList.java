@@ -20,42 +20,61 @@
 package com.sk89q.intake.internal.parametric;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableMap;
 import com.sk89q.intake.parametric.Binding;
 import com.sk89q.intake.parametric.Key;
 import com.sk89q.intake.parametric.Provider;
 
-import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
 class BindingList {
 
-    private final Multimap<Type, BindingEntry<?>> providers = HashMultimap.create();
+    private final Map<Key<?>, BindingEntry<?>> providers;
+    private final boolean frozen;
+
+    BindingList() {
+        this.providers = new HashMap<Key<?>, BindingEntry<?>>();
+        this.frozen = false;
+    }
+
+    private BindingList(Map<Key<?>, BindingEntry<?>> providers) {
+        this.providers = ImmutableMap.copyOf(providers);
+        this.frozen = true;
+    }
 
     public <T> void addBinding(Key<T> key, Provider<T> provider) {
         checkNotNull(key, "key");
         checkNotNull(provider, "provider");
+        checkState(!frozen, "Bindings can't be added to a frozen injector");
 
-        if (!providers.put(key.getType(), new BindingEntry<T>(key, provider))) {
+        if (providers.containsKey(key)) {
             throw new IllegalArgumentException(
                 "Failed to register " + provider + ", as a provider is already registered for " + key + "!");
         }
+
+        providers.put(key, new BindingEntry<T>(key, provider));
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
+    @SuppressWarnings("unchecked")
     @Nullable
     public <T> Binding<T> getBinding(Key<T> key) {
         checkNotNull(key, "key");
-        for (BindingEntry binding : providers.get(key.getType())) {
-            if (binding.getKey().equals(key)) {
-                return (Binding<T>) binding;
-            }
-        }
+        return (Binding<T>) providers.get(key);
+    }
 
-        return null;
+    /**
+     * Create an immutable copy of this list. Bindings that are added to
+     * this list afterwards are not visible in the copy.
+     *
+     * @return an immutable copy
+     */
+    public BindingList freeze() {
+        return frozen ? this : new BindingList(providers);
     }
 
     private static final class BindingEntry<T> implements Binding<T> {
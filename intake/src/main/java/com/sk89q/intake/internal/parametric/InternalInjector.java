@@ -32,12 +32,31 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public class InternalInjector implements Injector {
 
-    private final BindingList bindings = new BindingList();
+    private final BindingList bindings;
 
     public InternalInjector() {
+        bindings = new BindingList();
         install(new DefaultModule());
     }
 
+    private InternalInjector(BindingList bindings) {
+        this.bindings = bindings;
+    }
+
+    /**
+     * Create a read-only snapshot of this injector with the bindings of all
+     * modules installed so far.
+     *
+     * <p>Installing a module into the snapshot throws an
+     * {@link IllegalStateException}. Because its bindings can't change, the
+     * snapshot can safely be shared between threads.</p>
+     *
+     * @return the snapshot
+     */
+    public InternalInjector freeze() {
+        return new InternalInjector(bindings.freeze());
+    }
+
     @Override
     public void install(Module module) {
         checkNotNull(module, "module");
@@ -23,6 +23,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.CommandException;
 import com.sk89q.intake.InvalidUsageException;
@@ -30,33 +34,44 @@ import com.sk89q.intake.InvocationCommandException;
 import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
 import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.FlagSet;
 import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.argument.TokenStream;
 import com.sk89q.intake.argument.UnusedArgumentException;
 import com.sk89q.intake.parametric.handler.ExceptionContext;
 import com.sk89q.intake.parametric.handler.ExceptionConverter;
 import com.sk89q.intake.parametric.handler.InvokeHandler;
-import com.sk89q.intake.parametric.handler.InvokeListener;
 import com.sk89q.intake.util.auth.AuthorizationException;
 
 import java.lang.annotation.Annotation;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
 
 /**
  * A base class for commands that use {@link ArgumentParser}.
  */
 public abstract class AbstractParametricCallable implements CommandCallable {
 
+  private static final Executor INLINE_EXECUTOR = new Executor() {
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+  };
+
   private final ParametricBuilder builder;
   private final ArgumentParser parser;
 
   private List<? extends Annotation> commandAnnotations = Collections.emptyList();
   private boolean ignoreUnusedFlags = false;
   private Set<Character> unusedFlags = Collections.emptySet();
+  private long unusedFlagMask = 0;
 
   /**
    * Create a new instance.
@@ -146,91 +161,243 @@ public abstract class AbstractParametricCallable implements CommandCallable {
    */
   protected void setUnusedFlags(Set<Character> unusedFlags) {
     this.unusedFlags = ImmutableSet.copyOf(unusedFlags);
+    this.unusedFlagMask = FlagSet.maskOf(unusedFlags);
   }
 
   @Override
   public final boolean call(String stringArguments, Namespace namespace, List<String> parentCommands)
       throws InvocationCommandException, AuthorizationException, CommandException {
+    return call(new TokenStream(stringArguments), namespace, parentCommands);
+  }
+
+  /**
+   * Execute the command with the arguments that remain in the given stream.
+   *
+   * <p>This behaves like {@link #call(String, Namespace, List)}, except that
+   * the arguments are read from the stream's input without being copied.</p>
+   *
+   * @param arguments      The arguments
+   * @param namespace      Additional values used for execution
+   * @param parentCommands The list of parent commands
+   * @return Whether the command succeeded
+   * @throws CommandException           If there is an error with the command
+   * @throws InvocationCommandException If there is an error with executing the command
+   * @throws AuthorizationException     If there is a authorization error
+   */
+  public final boolean call(TokenStream arguments, Namespace namespace, List<String> parentCommands)
+      throws InvocationCommandException, AuthorizationException, CommandException {
     // Test permission
     if (!testPermission(namespace)) {
       throw new AuthorizationException();
     }
 
+    InvocationState state = builder.acquireInvocationState();
+    boolean reusable = true;
+
     try {
-      String calledCommand = !parentCommands.isEmpty() ? parentCommands.get(parentCommands.size() - 1) : "_";
-      String[] split = CommandContext.split(calledCommand + " " + stringArguments);
-      CommandContext context = new CommandContext(split, parser.getValueFlags(), false, namespace);
-      final CommandArgs commandArgs = Arguments.viewOf(context);
-      List<InvokeHandler> handlers = new ArrayList<InvokeHandler>();
-
-      // Provide help if -? is specified
-      if (context.hasFlag('?')) {
-        throw new InvalidUsageException(null, this, parentCommands, true);
+      Invocation invocation = prepare(arguments, namespace, parentCommands, state);
+      if (invocation == null) {
+        return true; // Abort early
       }
 
-      for (InvokeListener listener : builder.getInvokeListeners()) {
-        InvokeHandler handler = listener.createInvokeHandler();
-        handlers.add(handler);
+      // invoke
+      CommandExecutor executor = builder.getCommandExecutor();
+      if (executor instanceof DirectCommandExecutor) {
+        call(invocation.frame);
+      } else {
+        InvocationState.Task task = state != null ? state.task : new InvocationState.Task();
+        Future<Object> future = executor.submit(task.set(this, invocation.frame), invocation.commandArgs);
+        reusable = false; // The task may be running until it has completed
+        try {
+          future.get();
+          reusable = true;
+        } catch (ExecutionException e) {
+          reusable = true;
+          throw e.getCause();
+        }
       }
 
-      boolean invoke = true;
+      invocation.postInvoke();
 
-      // preProcess
-      for (InvokeHandler handler : handlers) {
-        if (!handler.preProcess(commandAnnotations, parser, commandArgs)) {
-          invoke = false;
-        }
+    } catch (Throwable e) { // Catch all
+      throw convertException(e, namespace, parentCommands);
+    } finally {
+      if (state != null) {
+        builder.releaseInvocationState(state, reusable);
       }
+    }
 
-      if (!invoke) {
-        return true; // Abort early
-      }
+    return true;
+  }
 
-      final Object[] args = parser.parseArguments(commandArgs, ignoreUnusedFlags, unusedFlags);
+  /**
+   * Execute the command without waiting for the {@link CommandExecutor} to finish invoking it.
+   *
+   * <p>The arguments are parsed in the calling thread. The returned future completes after the command has been
+   * invoked and the post-invoke handlers have run, which happens in the thread that completed the command. If the
+   * command fails, the exception converters run in that same thread and the future fails with a {@link
+   * CommandException}, an {@link InvocationCommandException} or an {@link AuthorizationException}, like {@link
+   * #call(String, Namespace, List)} would throw. The namespace should not be modified until the future is
+   * complete.</p>
+   *
+   * <p>Command executors should return a {@link ListenableFuture}. Any other future is waited for by a thread of
+   * {@link ParametricBuilder#getFutureListenerExecutor()}, which is blocked until the command completes.</p>
+   *
+   * @param arguments      The arguments
+   * @param namespace      Additional values used for execution
+   * @param parentCommands The list of parent commands
+   * @return A future that completes with whether the command succeeded
+   */
+  public final ListenableFuture<Boolean> callAsync(TokenStream arguments, final Namespace namespace,
+                                                  final List<String> parentCommands) {
+    // Test permission
+    if (!testPermission(namespace)) {
+      return Futures.immediateFailedFuture(new AuthorizationException());
+    }
 
-      // preInvoke
-      for (InvokeHandler handler : handlers) {
-        if (!handler.preInvoke(commandAnnotations, parser, args, commandArgs)) {
-          invoke = false;
-        }
+    final Invocation invocation;
+    final ListenableFuture<Object> future;
+
+    try {
+      invocation = prepare(arguments, namespace, parentCommands, null);
+      if (invocation == null) {
+        return Futures.immediateFuture(true); // Abort early
       }
 
-      if (!invoke) {
-        return true; // Abort early
+      // invoke
+      CommandExecutor executor = builder.getCommandExecutor();
+      if (executor instanceof DirectCommandExecutor) {
+        call(invocation.frame);
+        invocation.postInvoke();
+        return Futures.immediateFuture(true);
       }
 
-      namespace.put(CommandArgs.class, commandArgs);
+      Future<Object> submitted = executor.submit(new InvocationState.Task().set(this, invocation.frame),
+                                                 invocation.commandArgs);
+      future = submitted instanceof ListenableFuture
+               ? (ListenableFuture<Object>) submitted
+               : JdkFutureAdapters.listenInPoolThread(submitted, builder.getFutureListenerExecutor());
+    } catch (Throwable e) {
+      return Futures.immediateFailedFuture(convertExceptionQuietly(e, namespace, parentCommands));
+    }
 
-      // invoke
-      try {
-        builder.getCommandExecutor().submit(new Callable<Object>() {
-          @Override
-          public Object call() throws Exception {
-            AbstractParametricCallable.this.call(args);
-            return null;
+    final SettableFuture<Boolean> result = SettableFuture.create();
+    future.addListener(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          try {
+            future.get();
+          } catch (ExecutionException e) {
+            throw e.getCause();
           }
-        }, commandArgs).get();
-      } catch (ExecutionException e) {
-        throw e.getCause();
+
+          invocation.postInvoke();
+          result.set(true);
+        } catch (Throwable e) {
+          result.setException(convertExceptionQuietly(e, namespace, parentCommands));
+        }
       }
+    }, INLINE_EXECUTOR);
+    return result;
+  }
+
+  /**
+   * Execute the command without waiting for it to finish.
+   *
+   * @param arguments      The arguments
+   * @param namespace      Additional values used for execution
+   * @param parentCommands The list of parent commands
+   * @return A future that completes with whether the command succeeded
+   * @see #callAsync(TokenStream, Namespace, List)
+   */
+  public final ListenableFuture<Boolean> callAsync(String arguments, Namespace namespace, List<String> parentCommands) {
+    return callAsync(new TokenStream(arguments), namespace, parentCommands);
+  }
 
-      // postInvoke
-      for (InvokeHandler handler : handlers) {
-        handler.postInvoke(commandAnnotations, parser, args, commandArgs);
+  /**
+   * Parse the arguments and run the handlers that come before the invocation of the command.
+   *
+   * @return The invocation, or null if a handler aborted it
+   */
+  @Nullable
+  private Invocation prepare(TokenStream arguments, Namespace namespace, List<String> parentCommands,
+                             @Nullable InvocationState state) throws Exception {
+    String calledCommand = !parentCommands.isEmpty() ? parentCommands.get(parentCommands.size() - 1) : "_";
+    CommandContext context = new CommandContext.Builder()
+        .setCommand(calledCommand)
+        .setArguments(arguments.getInput(), arguments.getPosition())
+        .setExpectedValueMask(parser.getValueFlagMask())
+        .setNamespace(namespace)
+        .build();
+    CommandArgs commandArgs = Arguments.viewOf(context);
+
+    // Provide help if -? is specified
+    if (context.hasFlag('?')) {
+      throw new InvalidUsageException(null, this, parentCommands, true);
+    }
+
+    List<InvokeHandler> handlers = builder.createInvokeHandlers(state);
+    boolean invoke = true;
+
+    // preProcess
+    for (int i = 0; i < handlers.size(); i++) {
+      if (!handlers.get(i).preProcess(commandAnnotations, parser, commandArgs)) {
+        invoke = false;
       }
+    }
 
-    } catch (Throwable e) { // Catch all
-      ExceptionContext
-          exceptionContext =
-          new ExceptionContext.Builder().setCommand(this).setAliasStack(parentCommands).build();
-      for (ExceptionConverter converter : builder.getExceptionConverters()) {
-        converter.convert(e, exceptionContext);
+    if (!invoke) {
+      return null;
+    }
+
+    ArgumentFrame frame = parser.parseFrame(commandArgs, ignoreUnusedFlags, unusedFlags, unusedFlagMask);
+
+    // preInvoke
+    for (int i = 0; i < handlers.size(); i++) {
+      if (!handlers.get(i).preInvoke(commandAnnotations, parser, frame.toArray(), commandArgs)) {
+        invoke = false;
       }
+    }
 
-      throw new InvocationCommandException(e.getMessage(), e);
+    if (!invoke) {
+      return null;
     }
 
-    return true;
+    namespace.put(CommandArgs.class, commandArgs);
+
+    return new Invocation(handlers, frame, commandArgs);
+  }
+
+  /**
+   * Pass the given exception to the exception converters.
+   *
+   * @param e              The exception
+   * @param parentCommands The list of parent commands
+   * @return The exception to throw if no converter threw one
+   * @throws CommandException           If a converter converted the exception
+   * @throws InvocationCommandException If a converter converted the exception
+   */
+  private InvocationCommandException convertException(Throwable e, Namespace namespace, List<String> parentCommands)
+      throws CommandException, InvocationCommandException {
+    ExceptionContext
+        exceptionContext =
+        new ExceptionContext.Builder().setCommand(this).setAliasStack(parentCommands).setNamespace(namespace).build();
+    for (ExceptionConverter converter : builder.getExceptionConverters()) {
+      converter.convert(e, exceptionContext);
+    }
+
+    return new InvocationCommandException(e.getMessage(), e);
+  }
+
+  private Exception convertExceptionQuietly(Throwable e, Namespace namespace, List<String> parentCommands) {
+    try {
+      return convertException(e, namespace, parentCommands);
+    } catch (CommandException converted) {
+      return converted;
+    } catch (InvocationCommandException converted) {
+      return converted;
+    }
   }
 
   /**
@@ -241,9 +408,43 @@ public abstract class AbstractParametricCallable implements CommandCallable {
    */
   protected abstract void call(Object[] args) throws Exception;
 
+  /**
+   * Called with parsed arguments to execute the command.
+   *
+   * <p>The default implementation passes the boxed arguments to {@link #call(Object[])}. Implementations may override
+   * this method to read primitive arguments from the frame without boxing them.</p>
+   *
+   * @param frame The arguments parsed into a frame
+   * @throws Exception on any exception
+   */
+  protected void call(ArgumentFrame frame) throws Exception {
+    call(frame.toArray());
+  }
+
     @Override
     public List<String> getSuggestions(String arguments, Namespace locals) throws CommandException {
         return parser.parseSuggestions(arguments, locals);
     }
 
+  /**
+   * The state of an invocation after its arguments have been parsed.
+   */
+  private final class Invocation {
+    private final List<InvokeHandler> handlers;
+    private final ArgumentFrame frame;
+    private final CommandArgs commandArgs;
+
+    private Invocation(List<InvokeHandler> handlers, ArgumentFrame frame, CommandArgs commandArgs) {
+      this.handlers = handlers;
+      this.frame = frame;
+      this.commandArgs = commandArgs;
+    }
+
+    private void postInvoke() throws Exception {
+      for (int i = 0; i < handlers.size(); i++) {
+        handlers.get(i).postInvoke(commandAnnotations, parser, frame.toArray(), commandArgs);
+      }
+    }
+  }
+
 }
@@ -0,0 +1,212 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import java.lang.reflect.Type;
+
+import javax.annotation.Nullable;
+
+/**
+ * The parsed arguments of a command, with one slot for each parameter.
+ *
+ * <p>Slots of parameters that are provided by a {@link PrimitiveProvider}
+ * hold their values as primitives, all other slots hold objects. The values
+ * are only boxed into an array when {@link #toArray()} is called.</p>
+ */
+public final class ArgumentFrame {
+
+    static final byte OBJECT = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte BOOLEAN = 4;
+
+    private final byte[] kinds;
+    private final Object[] objects;
+    private final long[] primitives;
+    @Nullable
+    private Object[] array;
+
+    /**
+     * Create a new frame.
+     *
+     * @param kinds The kind of each slot, which is not copied
+     */
+    ArgumentFrame(byte[] kinds) {
+        this.kinds = kinds;
+        this.objects = new Object[kinds.length];
+        this.primitives = new long[kinds.length];
+    }
+
+    /**
+     * Get the number of slots.
+     *
+     * @return The number of slots
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Get the value of a slot as an object, boxing it if necessary.
+     *
+     * @param index The index of the slot
+     * @return The value
+     */
+    @Nullable
+    public Object getObject(int index) {
+        switch (kinds[index]) {
+            case INT: return (int) primitives[index];
+            case LONG: return primitives[index];
+            case DOUBLE: return Double.longBitsToDouble(primitives[index]);
+            case BOOLEAN: return primitives[index] != 0;
+            default: return objects[index];
+        }
+    }
+
+    /**
+     * Get the value of a slot as an {@code int}.
+     *
+     * @param index The index of the slot
+     * @return The value
+     */
+    public int getInt(int index) {
+        return kinds[index] == INT ? (int) primitives[index] : (Integer) objects[index];
+    }
+
+    /**
+     * Get the value of a slot as a {@code long}.
+     *
+     * @param index The index of the slot
+     * @return The value
+     */
+    public long getLong(int index) {
+        return kinds[index] == LONG ? primitives[index] : (Long) objects[index];
+    }
+
+    /**
+     * Get the value of a slot as a {@code double}.
+     *
+     * @param index The index of the slot
+     * @return The value
+     */
+    public double getDouble(int index) {
+        return kinds[index] == DOUBLE ? Double.longBitsToDouble(primitives[index]) : (Double) objects[index];
+    }
+
+    /**
+     * Get the value of a slot as a {@code boolean}.
+     *
+     * @param index The index of the slot
+     * @return The value
+     */
+    public boolean getBoolean(int index) {
+        return kinds[index] == BOOLEAN ? primitives[index] != 0 : (Boolean) objects[index];
+    }
+
+    /**
+     * Get the values of all slots, boxing them if necessary.
+     *
+     * <p>The array is created on the first call and the same array is
+     * returned by every later call. Changes to the array are seen by the
+     * command.</p>
+     *
+     * @return The values
+     */
+    public Object[] toArray() {
+        Object[] array = this.array;
+        if (array == null) {
+            array = new Object[kinds.length];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = getObject(i);
+            }
+            this.array = array;
+        }
+        return array;
+    }
+
+    /**
+     * Get the array that was created by {@link #toArray()}.
+     *
+     * @return The array, or null if it was not created yet
+     */
+    @Nullable
+    Object[] peekArray() {
+        return array;
+    }
+
+    /**
+     * Set the value of a slot, unboxing it if the slot holds a primitive.
+     *
+     * @param index The index of the slot
+     * @param value The value
+     */
+    void set(int index, @Nullable Object value) {
+        switch (kinds[index]) {
+            case INT: setInt(index, (Integer) value); break;
+            case LONG: setLong(index, (Long) value); break;
+            case DOUBLE: setDouble(index, (Double) value); break;
+            case BOOLEAN: setBoolean(index, (Boolean) value); break;
+            default: setObject(index, value);
+        }
+    }
+
+    void setObject(int index, @Nullable Object value) {
+        objects[index] = value;
+    }
+
+    void setInt(int index, int value) {
+        primitives[index] = value;
+    }
+
+    void setLong(int index, long value) {
+        primitives[index] = value;
+    }
+
+    void setDouble(int index, double value) {
+        primitives[index] = Double.doubleToRawLongBits(value);
+    }
+
+    void setBoolean(int index, boolean value) {
+        primitives[index] = value ? 1 : 0;
+    }
+
+    /**
+     * Get the kind of slot that is used for a parameter.
+     *
+     * @param type The type of the parameter
+     * @param provider The provider of the parameter
+     * @return The kind of slot
+     */
+    static byte kindOf(Type type, Provider<?> provider) {
+        if (type == int.class && provider instanceof PrimitiveProvider.OfInt) {
+            return INT;
+        } else if (type == long.class && provider instanceof PrimitiveProvider.OfLong) {
+            return LONG;
+        } else if (type == double.class && provider instanceof PrimitiveProvider.OfDouble) {
+            return DOUBLE;
+        } else if (type == boolean.class && provider instanceof PrimitiveProvider.OfBoolean) {
+            return BOOLEAN;
+        } else {
+            return OBJECT;
+        }
+    }
+
+}
@@ -21,12 +21,11 @@ package com.sk89q.intake.parametric;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.base.Defaults;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.sk89q.intake.ImmutableParameter;
 import com.sk89q.intake.OptionType;
@@ -35,7 +34,7 @@ import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.Arguments;
 import com.sk89q.intake.argument.CommandArgs;
-import com.sk89q.intake.argument.CommandContext;
+import com.sk89q.intake.argument.FlagSet;
 import com.sk89q.intake.argument.MissingArgumentException;
 import com.sk89q.intake.argument.Namespace;
 import com.sk89q.intake.argument.UnusedArgumentException;
@@ -45,12 +44,13 @@ import com.sk89q.intake.parametric.annotation.Switch;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 /**
  * An argument parser takes in a list of tokenized arguments and parses
  * them, converting them into appropriate Java objects using a provided
@@ -58,14 +58,46 @@ import java.util.Set;
  */
 public final class ArgumentParser {
 
-    private final Map<Parameter, ParameterEntry> parameters;
+    private final ParameterEntry[] entries;
+    private final ParameterEntry[] userEntries;
     private final List<Parameter> userParams;
     private final Set<Character> valueFlags;
+    private final long valueFlagMask;
+    private final long consumedFlagMask;
+    private final Set<Character> consumedUnmaskedFlags;
+    private final byte[] kinds;
 
-    private ArgumentParser(Map<Parameter, ParameterEntry> parameters, List<Parameter> userParams, Set<Character> valueFlags) {
-        this.parameters = ImmutableMap.copyOf(parameters);
-        this.userParams = ImmutableList.copyOf(userParams);
+    private ArgumentParser(Collection<ParameterEntry> entries, Set<Character> valueFlags) {
+        this.entries = entries.toArray(new ParameterEntry[entries.size()]);
         this.valueFlags = ImmutableSet.copyOf(valueFlags);
+        this.valueFlagMask = FlagSet.maskOf(valueFlags);
+        this.kinds = new byte[this.entries.length];
+
+        List<ParameterEntry> userEntries = Lists.newArrayList();
+        ImmutableList.Builder<Parameter> userParams = ImmutableList.builder();
+        long consumedFlagMask = 0;
+        ImmutableSet.Builder<Character> consumedUnmaskedFlags = ImmutableSet.builder();
+        for (int i = 0; i < this.entries.length; i++) {
+            ParameterEntry entry = this.entries[i];
+            kinds[i] = entry.getKind();
+            Character flag = entry.getOptionType().getFlag();
+            if (flag != null) {
+                long bit = FlagSet.maskOf(flag);
+                if (bit != 0) {
+                    consumedFlagMask |= bit;
+                } else {
+                    consumedUnmaskedFlags.add(flag);
+                }
+            }
+            if (!entry.getProvider().isProvided()) {
+                userEntries.add(entry);
+                userParams.add(entry.getParameter());
+            }
+        }
+        this.userEntries = userEntries.toArray(new ParameterEntry[userEntries.size()]);
+        this.userParams = userParams.build();
+        this.consumedFlagMask = consumedFlagMask;
+        this.consumedUnmaskedFlags = consumedUnmaskedFlags.build();
     }
 
     /**
@@ -86,6 +118,26 @@ public final class ArgumentParser {
         return valueFlags;
     }
 
+    /**
+     * Get the value flags that have been requested by the parameters as a
+     * mask of {@link FlagSet} bits.
+     *
+     * @return The mask of value flags
+     */
+    public long getValueFlagMask() {
+        return valueFlagMask;
+    }
+
+    /**
+     * Get the kind of {@link ArgumentFrame} slot that is used for each
+     * parameter.
+     *
+     * @return The kinds of slots, which must not be modified
+     */
+    byte[] getSlotKinds() {
+        return kinds;
+    }
+
     /**
      * Parse the given arguments into Java objects.
      *
@@ -109,16 +161,56 @@ public final class ArgumentParser {
      * @throws ProvisionException If there is a problem with the binding itself
      */
     public Object[] parseArguments(CommandArgs args, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws ArgumentException, ProvisionException {
-        Object[] parsedObjects = new Object[parameters.size()];
+        return parseFrame(args, ignoreUnusedFlags, unusedFlags).toArray();
+    }
 
-        int i = -1; // Simulate the old for loop TODO: Maybe pretty this up?
-        for (ParameterEntry entry : parameters.values()) {
-            i++;
-            OptionType optionType = entry.getParameter().getOptionType();
+    /**
+     * Parse the given arguments into a frame.
+     *
+     * <p>Parameters of a primitive type whose provider is a matching
+     * {@link PrimitiveProvider} are parsed without boxing their values.
+     * Optional parameters of a primitive type that were not given and have
+     * no default value are set to zero or false.</p>
+     *
+     * @param args The tokenized arguments
+     * @param ignoreUnusedFlags Whether unused flags should not throw an exception
+     * @param unusedFlags List of flags that can be unconsumed
+     * @return The frame of parsed arguments
+     * @throws ArgumentException If there is a problem with the provided arguments
+     * @throws ProvisionException If there is a problem with the binding itself
+     */
+    public ArgumentFrame parseFrame(CommandArgs args, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws ArgumentException, ProvisionException {
+        return parseFrame(args, ignoreUnusedFlags, unusedFlags, FlagSet.maskOf(unusedFlags));
+    }
+
+    /**
+     * Parse the given arguments into a frame.
+     *
+     * @param args The tokenized arguments
+     * @param ignoreUnusedFlags Whether unused flags should not throw an exception
+     * @param unusedFlags List of flags that can be unconsumed
+     * @param unusedFlagMask The mask of {@code unusedFlags}
+     * @return The frame of parsed arguments
+     * @throws ArgumentException If there is a problem with the provided arguments
+     * @throws ProvisionException If there is a problem with the binding itself
+     * @see #parseFrame(CommandArgs, boolean, Set)
+     */
+    ArgumentFrame parseFrame(CommandArgs args, boolean ignoreUnusedFlags, Set<Character> unusedFlags, long unusedFlagMask) throws ArgumentException, ProvisionException {
+        ArgumentFrame frame = new ArgumentFrame(kinds);
+
+        for (int i = 0; i < entries.length; i++) {
+            ParameterEntry entry = entries[i];
+            OptionType optionType = entry.getOptionType();
             CommandArgs argsForParameter = optionType.transform(args);
 
+            // Skip the provider if there is nothing left for it to read and it can only fail
+            if (optionType.isOptional() && entry.isSkippedWhenMissing() && !argsForParameter.hasNext()) {
+                provideDefaultValue(frame, i, entry, args);
+                continue;
+            }
+
             try {
-                parsedObjects[i] = entry.getBinding().getProvider().get(argsForParameter, entry.getModifiers());
+                provide(frame, i, entry, argsForParameter);
             } catch (ArgumentParseException e) {
                 throw new ArgumentParseException(e.getMessage(), e, entry.getParameter());
             } catch (MissingArgumentException e) {
@@ -126,14 +218,14 @@ public final class ArgumentParser {
                     throw new MissingArgumentException(e, entry.getParameter());
                 }
 
-                parsedObjects[i] = getDefaultValue(entry, args);
+                provideDefaultValue(frame, i, entry, args);
             }
         }
 
         // Check for unused arguments
-        checkUnconsumed(args, ignoreUnusedFlags, unusedFlags);
+        checkUnconsumed(args, ignoreUnusedFlags, unusedFlags, unusedFlagMask);
 
-        return parsedObjects;
+        return frame;
     }
 
     /**
@@ -144,88 +236,82 @@ public final class ArgumentParser {
      * @return The list of suggestions
      */
     public List<String> parseSuggestions(String arguments, Namespace locals) {
-        String[] split = CommandContext.split(arguments);
-
-        int argId = split.length - 1;
-        String arg = split[argId];
+        int argId = 0;
+        int lastSeparator = -1;
+        for (int i = 0; i < arguments.length(); i++) {
+            if (arguments.charAt(i) == ' ') {
+                argId++;
+                lastSeparator = i;
+            }
+        }
 
-        if (argId >= userParams.size()) {
+        if (argId >= userEntries.length) {
             return ImmutableList.of();
         }
-        Parameter parameter = userParams.get(argId);
-        if(parameter == null) return ImmutableList.of();
 
-        ParameterEntry entry = parameters.get(parameter);
-
-        return entry.getBinding().getProvider().getSuggestions(arg, locals);
+        return userEntries[argId].getProvider().getSuggestions(arguments.substring(lastSeparator + 1), locals);
     }
 
-    private Object getDefaultValue(ParameterEntry entry, CommandArgs arguments) {
-        Provider<?> provider = entry.getBinding().getProvider();
+    private static void provide(ArgumentFrame frame, int index, ParameterEntry entry, CommandArgs arguments) throws ArgumentException, ProvisionException {
+        Provider<?> provider = entry.getProvider();
 
-        List<String> defaultValue = entry.getParameter().getDefaultValue();
-        if (defaultValue.isEmpty()) {
-            return null;
+        switch (entry.getKind()) {
+            case ArgumentFrame.INT:
+                frame.setInt(index, ((PrimitiveProvider.OfInt) provider).getInt(arguments, entry.getModifiers()));
+                break;
+            case ArgumentFrame.LONG:
+                frame.setLong(index, ((PrimitiveProvider.OfLong) provider).getLong(arguments, entry.getModifiers()));
+                break;
+            case ArgumentFrame.DOUBLE:
+                frame.setDouble(index, ((PrimitiveProvider.OfDouble) provider).getDouble(arguments, entry.getModifiers()));
+                break;
+            case ArgumentFrame.BOOLEAN:
+                frame.setBoolean(index, ((PrimitiveProvider.OfBoolean) provider).getBoolean(arguments, entry.getModifiers()));
+                break;
+            default:
+                frame.setObject(index, provider.get(arguments, entry.getModifiers()));
+        }
+    }
+
+    private static void provideDefaultValue(ArgumentFrame frame, int index, ParameterEntry entry, CommandArgs arguments) {
+        if (entry.isDefaultValueParsed()) {
+            frame.set(index, entry.getParsedDefaultValue());
         } else {
             try {
-                return provider.get(Arguments.copyOf(defaultValue, arguments.getFlags(), arguments.getNamespace()), entry.getModifiers());
+                provide(frame, index, entry, Arguments.copyOf(entry.getDefaultValue(), arguments.getFlags(), arguments.getNamespace()));
             } catch (ArgumentException e) {
-                throw new IllegalParameterException("No value was specified for the '" + entry.getParameter().getName() + "' parameter " +
-                        "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: " + e.getMessage());
+                throw new IllegalParameterException(entry.getDefaultValueError() + e.getMessage());
             } catch (ProvisionException e) {
-                throw new IllegalParameterException("No value was specified for the '" + entry.getParameter().getName() + "' parameter " +
-                        "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: " + e.getMessage());
+                throw new IllegalParameterException(entry.getDefaultValueError() + e.getMessage());
             }
         }
     }
 
-    private void checkUnconsumed(CommandArgs arguments, boolean ignoreUnusedFlags, Set<Character> unusedFlags) throws UnusedArgumentException {
-        List<String> unconsumedArguments = Lists.newArrayList();
-
-        if (!ignoreUnusedFlags) {
-            Set<Character> unconsumedFlags = null;
-
-            for (char flag : arguments.getFlags().keySet()) {
-                boolean found = false;
-
-                if (unusedFlags.contains(flag)) {
-                    break;
-                }
-
-                for (ParameterEntry parameter : parameters.values()) {
-                    Character paramFlag = parameter.getParameter().getOptionType().getFlag();
-                    if (paramFlag != null && flag == paramFlag) {
-                        found = true;
-                        break;
-                    }
-                }
-
-                if (!found) {
-                    if (unconsumedFlags == null) {
-                        unconsumedFlags = new HashSet<Character>();
-                    }
-                    unconsumedFlags.add(flag);
-                }
-            }
-
-            if (unconsumedFlags != null) {
-                for (Character flag : unconsumedFlags) {
-                    unconsumedArguments.add("-" + flag);
-                }
-            }
+    private void checkUnconsumed(CommandArgs arguments, boolean ignoreUnusedFlags, Set<Character> unusedFlags, long unusedFlagMask) throws ArgumentException {
+        FlagSet flags = FlagSet.of(arguments);
+        long unconsumedFlags = ignoreUnusedFlags ? 0 : flags.getMask() & ~(consumedFlagMask | unusedFlagMask);
+        Set<Character> unmaskedFlags = ignoreUnusedFlags ? ImmutableSet.<Character>of() : flags.getUnmaskedFlags();
+        if (unconsumedFlags == 0 && unmaskedFlags.isEmpty() && !arguments.hasNext()) {
+            return;
         }
 
-        while (true) {
-            try {
-                unconsumedArguments.add(arguments.next());
-            } catch (MissingArgumentException ignored) {
-                break;
+        List<String> unconsumedArguments = Lists.newArrayList();
+        for (; unconsumedFlags != 0; unconsumedFlags &= unconsumedFlags - 1) {
+            unconsumedArguments.add("-" + FlagSet.flagAt(Long.numberOfTrailingZeros(unconsumedFlags)));
+        }
+        for (Character flag : unmaskedFlags) {
+            if (!consumedUnmaskedFlags.contains(flag) && !unusedFlags.contains(flag)) {
+                unconsumedArguments.add("-" + flag);
             }
         }
-
-        if (!unconsumedArguments.isEmpty()) {
-            throw new UnusedArgumentException(Joiner.on(" ").join(unconsumedArguments));
+        if (unconsumedArguments.isEmpty() && !arguments.hasNext()) {
+            return;
         }
+        while (arguments.hasNext()) {
+            unconsumedArguments.add(arguments.next());
+        }
+
+        throw new UnusedArgumentException(Joiner.on(" ").join(unconsumedArguments));
     }
 
     /**
@@ -233,8 +319,7 @@ public final class ArgumentParser {
      */
     public static class Builder {
         private final Injector injector;
-        private final Map<Parameter, ParameterEntry> parameters = Maps.newLinkedHashMap(); // Need to preserve order at all times
-        private final List<Parameter> userProvidedParameters = Lists.newArrayList();
+        private final List<ParameterEntry> parameters = Lists.newArrayList(); // Need to preserve order at all times
         private final Set<Character> valueFlags = Sets.newHashSet();
         private boolean seenOptionalParameter = false;
 
@@ -327,17 +412,36 @@ public final class ArgumentParser {
                 throw new IllegalParameterException("Can't finding a binding for the parameter type '" + type + "'");
             }
 
-            ParameterEntry entry = new ParameterEntry(parameter, key, binding, modifiers);
+            Provider<?> provider = binding.getProvider();
+            if (provider instanceof ConfigurableProvider<?>) {
+                provider = ((ConfigurableProvider<?>) provider).configure(ImmutableList.copyOf(modifiers));
+                checkNotNull(provider, "ConfigurableProvider.configure() returned null for the parameter type '" + type + "'");
+            }
 
-            if (optionType.isValueFlag()) {
-                valueFlags.add(optionType.getFlag());
+            byte kind = ArgumentFrame.kindOf(type, provider);
+            ParameterEntry entry = new ParameterEntry(parameter, key, binding, provider, modifiers, kind);
+
+            if (defaultValue.isEmpty()) {
+                entry.setParsedDefaultValue(type instanceof Class<?> ? Defaults.defaultValue((Class<?>) type) : null);
+            } else if (provider instanceof DeterministicProvider<?>) {
+                ArgumentFrame frame = new ArgumentFrame(new byte[] { kind });
+                try {
+                    provide(frame, 0, entry, Arguments.copyOf(defaultValue));
+                } catch (ArgumentException e) {
+                    throw new IllegalParameterException("The default value '" + Joiner.on(" ").join(defaultValue) + "' of parameter #" + index +
+                            " doesn't work due to an error: " + e.getMessage(), e);
+                } catch (ProvisionException e) {
+                    throw new IllegalParameterException("The default value '" + Joiner.on(" ").join(defaultValue) + "' of parameter #" + index +
+                            " doesn't work due to an error: " + e.getMessage(), e);
+                }
+                entry.setParsedDefaultValue(frame.getObject(0));
             }
 
-            if (!binding.getProvider().isProvided()) {
-                userProvidedParameters.add(parameter);
+            if (optionType.isValueFlag()) {
+                valueFlags.add(optionType.getFlag());
             }
 
-            parameters.put(parameter, entry);
+            parameters.add(entry);
         }
 
         /**
@@ -346,7 +450,7 @@ public final class ArgumentParser {
          * @return A new argument parser
          */
         public ArgumentParser build() {
-            return new ArgumentParser(parameters, userProvidedParameters, valueFlags);
+            return new ArgumentParser(parameters, valueFlags);
         }
 
         private static String getFriendlyName(Type type, Annotation classifier, int index) {
@@ -358,17 +462,37 @@ public final class ArgumentParser {
         }
     }
 
+    /**
+     * A parameter with everything that is needed to parse it resolved
+     * when the parser is built.
+     */
     private static class ParameterEntry {
         private final Parameter parameter;
         private final Key<?> key;
         private final Binding<?> binding;
+        private final Provider<?> provider;
+        private final OptionType optionType;
         private final List<Annotation> modifiers;
-
-        ParameterEntry(Parameter parameter, Key<?> key, Binding<?> binding, List<Annotation> modifiers) {
+        private final List<String> defaultValue;
+        private final String defaultValueError;
+        private final byte kind;
+        private final boolean skippedWhenMissing;
+        private boolean defaultValueParsed;
+        @Nullable
+        private Object parsedDefaultValue;
+
+        ParameterEntry(Parameter parameter, Key<?> key, Binding<?> binding, Provider<?> provider, List<Annotation> modifiers, byte kind) {
             this.parameter = parameter;
             this.key = key;
             this.binding = binding;
-            this.modifiers = modifiers;
+            this.provider = provider;
+            this.optionType = parameter.getOptionType();
+            this.modifiers = ImmutableList.copyOf(modifiers);
+            this.defaultValue = parameter.getDefaultValue();
+            this.defaultValueError = "No value was specified for the '" + parameter.getName() + "' parameter " +
+                    "so the default value '" + Joiner.on(" ").join(defaultValue) + "' was used, but this value doesn't work due to an error: ";
+            this.kind = kind;
+            this.skippedWhenMissing = provider instanceof DeterministicProvider<?> && !provider.isProvided();
         }
 
         public Parameter getParameter() {
@@ -383,9 +507,62 @@ public final class ArgumentParser {
             return binding;
         }
 
+        public Provider<?> getProvider() {
+            return provider;
+        }
+
+        public OptionType getOptionType() {
+            return optionType;
+        }
+
+        public List<String> getDefaultValue() {
+            return defaultValue;
+        }
+
+        public String getDefaultValueError() {
+            return defaultValueError;
+        }
+
         public List<Annotation> getModifiers() {
             return modifiers;
         }
+
+        public byte getKind() {
+            return kind;
+        }
+
+        /**
+         * Get whether the provider does not need to be called when there
+         * are no arguments left, because it only reads arguments and would
+         * throw a {@link MissingArgumentException}. Other providers may
+         * return a value of their own, so they are always called.
+         *
+         * @return Whether the provider can be skipped
+         */
+        public boolean isSkippedWhenMissing() {
+            return skippedWhenMissing;
+        }
+
+        public boolean isDefaultValueParsed() {
+            return defaultValueParsed;
+        }
+
+        @Nullable
+        public Object getParsedDefaultValue() {
+            return parsedDefaultValue;
+        }
+
+        /**
+         * Set the value that is used when the argument is missing, instead
+         * of parsing the default value on each call. Only called before
+         * the parser is built.
+         *
+         * @param value The value
+         */
+        void setParsedDefaultValue(@Nullable Object value) {
+            this.defaultValueParsed = true;
+            this.parsedDefaultValue = value;
+        }
     }
 
 }
@@ -26,6 +26,10 @@ import java.util.concurrent.Future;
 
 /**
  * Accepts commands as callables and executes them.
+ *
+ * <p>Implementations should return a {@link com.google.common.util.concurrent.ListenableFuture} from {@link
+ * #submit(Callable, CommandArgs)}. Other futures can only be waited for by blocking a thread of {@link
+ * ParametricBuilder#getFutureListenerExecutor()} until they complete.</p>
  */
 public interface CommandExecutor {
 
@@ -19,6 +19,8 @@
 
 package com.sk89q.intake.parametric;
 
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.sk89q.intake.argument.CommandArgs;
 
 import java.util.concurrent.Callable;
@@ -29,14 +31,18 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Wraps an ExecutorService into a CommandExecutor.
+ *
+ * <p>The returned futures are {@link com.google.common.util.concurrent.ListenableFuture}s,
+ * so that asynchronous calls can continue when a command completes
+ * without blocking a thread.</p>
  */
 public class CommandExecutorWrapper implements CommandExecutor {
 
-    private final ExecutorService executorService;
+    private final ListeningExecutorService executorService;
 
     public CommandExecutorWrapper(ExecutorService executorService) {
         checkNotNull(executorService, "executorService");
-        this.executorService = executorService;
+        this.executorService = MoreExecutors.listeningDecorator(executorService);
     }
 
     @Override
@@ -0,0 +1,54 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * A provider that can prepare itself for the modifiers of a parameter.
+ *
+ * <p>When a parameter is added to an {@link ArgumentParser}, the parser
+ * calls {@link #configure(List)} once with the parameter's modifiers and
+ * uses the returned provider for every invocation. This lets a provider
+ * read its modifiers, compile patterns or check bounds once, instead of
+ * scanning the modifiers in every call to
+ * {@link #get(com.sk89q.intake.argument.CommandArgs, List)}.</p>
+ *
+ * @param <T> The type of value
+ */
+public interface ConfigurableProvider<T> extends Provider<T> {
+
+    /**
+     * Get a provider for a parameter with the given modifiers.
+     *
+     * <p>The returned provider is still passed the same modifiers when it
+     * is called, but it may ignore them. It may be this provider if there
+     * is nothing to prepare. If the returned provider implements a
+     * {@link PrimitiveProvider} interface, it is used to provide primitives
+     * as well.</p>
+     *
+     * @param modifiers The modifiers on the parameter
+     * @return The provider for the parameter
+     * @throws IllegalParameterException If the modifiers are not valid
+     */
+    Provider<T> configure(List<? extends Annotation> modifiers) throws IllegalParameterException;
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.parametric.annotation.OptArg;
+
+/**
+ * A {@link Provider} whose values only depend on the given arguments and
+ * modifiers, not on the namespace, the flags or any other state, and can
+ * be shared by every invocation.
+ *
+ * <p>{@link ArgumentParser} parses the {@link OptArg} default values of
+ * parameters with such a provider once, when the parameter is added, and
+ * reuses the value whenever the argument is missing. A default value that
+ * cannot be parsed is reported then, instead of when the command is
+ * called.</p>
+ *
+ * <p>If an optional parameter with such a provider has no input left, the
+ * parser uses the default value without calling the provider.</p>
+ *
+ * @param <T> The type of value
+ */
+public interface DeterministicProvider<T> extends Provider<T> {
+}
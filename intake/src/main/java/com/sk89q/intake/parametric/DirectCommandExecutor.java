@@ -0,0 +1,46 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.google.common.util.concurrent.Futures;
+import com.sk89q.intake.argument.CommandArgs;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link CommandExecutor} that executes commands in the calling thread.
+ *
+ * <p>{@link AbstractParametricCallable} recognizes this executor and invokes
+ * commands directly, without creating a task or a future. This is the
+ * default executor of {@link ParametricBuilder}.</p>
+ */
+public final class DirectCommandExecutor implements CommandExecutor {
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task, CommandArgs args) {
+        try {
+            return Futures.immediateFuture(task.call());
+        } catch (Exception e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.parametric.handler.InvokeHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * The structures used by a single invocation of an {@link AbstractParametricCallable}
+ * that can be reused by the next invocation on the same thread.
+ *
+ * @see ParametricBuilder#setPoolInvocationState(boolean)
+ */
+final class InvocationState {
+
+    final List<InvokeHandler> handlers = new ArrayList<InvokeHandler>();
+    final Task task = new Task();
+    boolean inUse;
+
+    /**
+     * Calls {@link AbstractParametricCallable#call(ArgumentFrame)} with the
+     * arguments it was last given.
+     */
+    static final class Task implements Callable<Object> {
+        private AbstractParametricCallable callable;
+        private ArgumentFrame frame;
+
+        Task set(AbstractParametricCallable callable, ArgumentFrame frame) {
+            this.callable = callable;
+            this.frame = frame;
+            return this;
+        }
+
+        void clear() {
+            this.callable = null;
+            this.frame = null;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            callable.call(frame);
+            return null;
+        }
+    }
+
+}
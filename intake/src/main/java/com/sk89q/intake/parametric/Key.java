@@ -32,10 +32,16 @@ public final class Key<T> {
     private final Type type;
     @Nullable
     private final Class<? extends Annotation> classifier;
+    private final int hashCode;
 
     private Key(Type type, @Nullable Class<? extends Annotation> classifier) {
         this.type = type;
         this.classifier = classifier;
+
+        // Hashing some implementations of Type, such as ParameterizedType, is expensive
+        int result = type != null ? type.hashCode() : 0;
+        result = 31 * result + (classifier != null ? classifier.hashCode() : 0);
+        this.hashCode = result;
     }
 
     public Type getType() {
@@ -62,6 +68,9 @@ public final class Key<T> {
 
         Key<?> key = (Key<?>) o;
 
+        if (hashCode != key.hashCode) {
+            return false;
+        }
         if (type != null ? !type.equals(key.type) : key.type != null) {
             return false;
         }
@@ -71,9 +80,7 @@ public final class Key<T> {
 
     @Override
     public int hashCode() {
-        int result = type != null ? type.hashCode() : 0;
-        result = 31 * result + (classifier != null ? classifier.hashCode() : 0);
-        return result;
+        return hashCode;
     }
 
     @Override
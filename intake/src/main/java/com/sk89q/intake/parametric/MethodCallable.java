@@ -28,13 +28,12 @@ import com.sk89q.intake.Command;
 import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.Description;
 import com.sk89q.intake.ImmutableDescription;
-import com.sk89q.intake.InvocationCommandException;
 import com.sk89q.intake.Require;
 import com.sk89q.intake.argument.Namespace;
 import com.sk89q.intake.parametric.handler.InvokeListener;
+import com.sk89q.intake.util.auth.PermissionIndex;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Arrays;
@@ -45,34 +44,27 @@ import java.util.Set;
  * The implementation of a {@link CommandCallable} for the
  * {@link ParametricBuilder}.
  */
-final class MethodCallable extends AbstractParametricCallable {
+final class MethodCallable extends AbstractParametricCallable implements PermissionIndex.Indexable {
 
-    private final Object object;
-    private final Method method;
+    private final MethodInvoker invoker;
     private final Description description;
     private final List<String> permissions;
 
-    private MethodCallable(ParametricBuilder builder, ArgumentParser parser, Object object, Method method, Description description, List<String> permissions) {
+    private MethodCallable(ParametricBuilder builder, ArgumentParser parser, MethodInvoker invoker, Description description, List<String> permissions) {
         super(builder, parser);
-        this.object = object;
-        this.method = method;
+        this.invoker = invoker;
         this.description = description;
         this.permissions = permissions;
     }
 
     @Override
     protected void call(Object[] args) throws Exception {
-        try {
-            method.invoke(object, args);
-        } catch (IllegalAccessException e) {
-            throw new InvocationCommandException("Could not invoke method '" + method + "'", e);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof Exception) {
-                throw (Exception) e.getCause();
-            } else {
-                throw new InvocationCommandException("Could not invoke method '" + method + "'", e);
-            }
-        }
+        invoker.invoke(args);
+    }
+
+    @Override
+    protected void call(ArgumentFrame frame) throws Exception {
+        invoker.invoke(frame);
     }
 
     @Override
@@ -95,6 +87,15 @@ final class MethodCallable extends AbstractParametricCallable {
         }
     }
 
+    @Override
+    public PermissionIndex getPermissionIndex() {
+        if (permissions != null) {
+            return PermissionIndex.builder().addPermissions(getBuilder().getCurrentAuthorizer(), permissions).build();
+        } else {
+            return PermissionIndex.builder().addUnrestricted().build();
+        }
+    }
+
     static MethodCallable create(ParametricBuilder builder, Object object, Method method) throws IllegalParameterException {
         checkNotNull(builder, "builder");
         checkNotNull(object, "object");
@@ -137,7 +138,11 @@ final class MethodCallable extends AbstractParametricCallable {
 
         Description description = descBuilder.build();
 
-        MethodCallable callable = new MethodCallable(builder, parser, object, method, description, permissions);
+        MethodInvoker invoker = builder.isUseMethodHandles()
+                ? MethodInvoker.methodHandle(object, method, parser.getSlotKinds())
+                : MethodInvoker.reflective(object, method);
+
+        MethodCallable callable = new MethodCallable(builder, parser, invoker, description, permissions);
         callable.setCommandAnnotations(ImmutableList.copyOf(method.getAnnotations()));
         callable.setIgnoreUnusedFlags(ignoreUnusedFlags);
         callable.setUnusedFlags(unusedFlags);
@@ -0,0 +1,179 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.InvocationCommandException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes the method behind a {@link MethodCallable} with already parsed
+ * arguments.
+ */
+abstract class MethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object[].class);
+    private static final MethodType FRAME_INVOKER_TYPE = MethodType.methodType(void.class, ArgumentFrame.class);
+    private static final MethodHandle[] FRAME_GETTERS = new MethodHandle[5];
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            FRAME_GETTERS[ArgumentFrame.OBJECT] = lookup.findVirtual(ArgumentFrame.class, "getObject", MethodType.methodType(Object.class, int.class));
+            FRAME_GETTERS[ArgumentFrame.INT] = lookup.findVirtual(ArgumentFrame.class, "getInt", MethodType.methodType(int.class, int.class));
+            FRAME_GETTERS[ArgumentFrame.LONG] = lookup.findVirtual(ArgumentFrame.class, "getLong", MethodType.methodType(long.class, int.class));
+            FRAME_GETTERS[ArgumentFrame.DOUBLE] = lookup.findVirtual(ArgumentFrame.class, "getDouble", MethodType.methodType(double.class, int.class));
+            FRAME_GETTERS[ArgumentFrame.BOOLEAN] = lookup.findVirtual(ArgumentFrame.class, "getBoolean", MethodType.methodType(boolean.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Invoke the method.
+     *
+     * @param args the arguments
+     * @throws Exception any exception thrown by the method
+     */
+    abstract void invoke(Object[] args) throws Exception;
+
+    /**
+     * Invoke the method with the arguments in a frame.
+     *
+     * @param frame the frame of arguments
+     * @throws Exception any exception thrown by the method
+     */
+    void invoke(ArgumentFrame frame) throws Exception {
+        invoke(frame.toArray());
+    }
+
+    /**
+     * Create an invoker that calls {@link Method#invoke(Object, Object...)}.
+     *
+     * @param object the object to invoke the method on
+     * @param method the method
+     * @return the invoker
+     */
+    static MethodInvoker reflective(final Object object, final Method method) {
+        return new MethodInvoker() {
+            @Override
+            void invoke(Object[] args) throws Exception {
+                try {
+                    method.invoke(object, args);
+                } catch (IllegalAccessException e) {
+                    throw new InvocationCommandException("Could not invoke method '" + method + "'", e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    } else {
+                        throw new InvocationCommandException("Could not invoke method '" + method + "'", e);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Create an invoker that calls a {@link MethodHandle} which is bound to
+     * the object and adapted to take the arguments as an array once, when
+     * the invoker is created.
+     *
+     * <p>A second handle reads each argument straight from the slot of an
+     * {@link ArgumentFrame} of the given kind, so that primitive arguments
+     * are passed without being boxed. It is used unless the frame's array
+     * was already created, because the array may have been changed.</p>
+     *
+     * <p>If the method cannot be accessed through a method handle, a
+     * {@link #reflective(Object, Method) reflective} invoker is returned
+     * instead.</p>
+     *
+     * @param object the object to invoke the method on
+     * @param method the method
+     * @param kinds the kind of frame slot of each parameter
+     * @return the invoker
+     */
+    static MethodInvoker methodHandle(Object object, final Method method, byte[] kinds) {
+        MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException e) {
+            return reflective(object, method);
+        } catch (SecurityException e) {
+            return reflective(object, method);
+        }
+
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(object);
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        handle = handle.asType(handle.type().changeReturnType(void.class));
+
+        final MethodHandle invoker = handle
+                .asSpreader(Object[].class, parameterTypes.length)
+                .asType(INVOKER_TYPE);
+
+        MethodHandle[] getters = new MethodHandle[parameterTypes.length];
+        for (int i = 0; i < getters.length; i++) {
+            getters[i] = MethodHandles.insertArguments(FRAME_GETTERS[kinds[i]], 1, i)
+                    .asType(MethodType.methodType(parameterTypes[i], ArgumentFrame.class));
+        }
+
+        final MethodHandle frameInvoker = MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(handle, 0, getters), FRAME_INVOKER_TYPE, new int[getters.length]);
+
+        return new MethodInvoker() {
+            @Override
+            void invoke(Object[] args) throws Exception {
+                try {
+                    invoker.invokeExact(args);
+                } catch (Exception e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new InvocationCommandException("Could not invoke method '" + method + "'", t);
+                }
+            }
+
+            @Override
+            void invoke(ArgumentFrame frame) throws Exception {
+                Object[] args = frame.peekArray();
+                if (args != null) {
+                    invoke(args);
+                    return;
+                }
+
+                try {
+                    frameInvoker.invokeExact(frame);
+                } catch (Exception e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new InvocationCommandException("Could not invoke method '" + method + "'", t);
+                }
+            }
+        };
+    }
+
+}
@@ -21,14 +21,16 @@ package com.sk89q.intake.parametric;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListenableFutureTask;
-import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.collect.ObjectArrays;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sk89q.intake.Command;
 import com.sk89q.intake.CommandCallable;
 import com.sk89q.intake.CommandException;
 import com.sk89q.intake.Default;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.Namespace;
 import com.sk89q.intake.completion.CommandCompleter;
 import com.sk89q.intake.completion.NullCompleter;
 import com.sk89q.intake.dispatcher.Dispatcher;
@@ -36,22 +38,22 @@ import com.sk89q.intake.parametric.handler.DefaultExceptionConverter;
 import com.sk89q.intake.parametric.handler.ExceptionConverter;
 import com.sk89q.intake.parametric.handler.InvokeHandler;
 import com.sk89q.intake.parametric.handler.InvokeListener;
+import com.sk89q.intake.parametric.handler.SharedInvokeListener;
 import com.sk89q.intake.util.auth.Authorizer;
+import com.sk89q.intake.util.auth.BatchAuthorizer;
 import com.sk89q.intake.util.auth.NullAuthorizer;
 import com.sk89q.intake.util.i18n.ResourceProvider;
 
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.AbstractExecutorService;
-import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nullable;
-import javax.annotation.concurrent.GuardedBy;
 
 /**
  * Keeps a mapping of types to bindings and generates commands from classes with appropriate annotations.
@@ -60,18 +62,29 @@ public class ParametricBuilder {
 
   private final Injector injector;
   private final List<InvokeListener> invokeListeners = Lists.newArrayList();
-  private final LinkedList<ExceptionConverter> exceptionConverters = Lists.newLinkedList();
+  private final List<InvokeHandler> sharedHandlers = Lists.newArrayList();
+  @Nullable
+  private List<InvokeHandler> allSharedHandlers = ImmutableList.of();
+  private final ThreadLocal<InvocationState> invocationState = new ThreadLocal<InvocationState>() {
+    @Override
+    protected InvocationState initialValue() {
+      return new InvocationState();
+    }
+  };
+  private boolean poolInvocationState = false;
+  private ExceptionConverter[] exceptionConverters = {new DefaultExceptionConverter()};
   private Authorizer authorizer = new NullAuthorizer();
+  private final Authorizer currentAuthorizer = new CurrentAuthorizer();
   private CommandCompleter defaultCompleter = new NullCompleter();
-  // see comment on DirectExecutorService for its reason of being
-  private CommandExecutor commandExecutor = new CommandExecutorWrapper(new DirectExecutorService());
+  private CommandExecutor commandExecutor = new DirectCommandExecutor();
+  @Nullable
+  private Executor futureListenerExecutor;
   @Nullable
   private ResourceProvider resourceProvider;
+  private boolean useMethodHandles = true;
 
   public ParametricBuilder(Injector injector) {
     this.injector = injector;
-
-    exceptionConverters.add(new DefaultExceptionConverter());
   }
 
   public Injector getInjector() {
@@ -89,6 +102,8 @@ public class ParametricBuilder {
   public void addInvokeListener(InvokeListener listener) {
     checkNotNull(listener);
     invokeListeners.add(listener);
+    sharedHandlers.add(listener instanceof SharedInvokeListener ? listener.createInvokeHandler() : null);
+    allSharedHandlers = !sharedHandlers.contains(null) ? ImmutableList.copyOf(sharedHandlers) : null;
   }
 
   /**
@@ -100,12 +115,13 @@ public class ParametricBuilder {
    */
   public void addExceptionConverter(ExceptionConverter converter) {
     checkNotNull(converter);
-    exceptionConverters.addFirst(converter);
+    exceptionConverters = ObjectArrays.concat(converter, exceptionConverters);
   }
 
   /**
    * Get the executor service used to invoke the actual command. <p>Bindings will still be resolved in the thread in
-   * which the callable was called.</p>
+   * which the callable was called.</p> <p>By default, commands are invoked in the calling thread by a {@link
+   * DirectCommandExecutor}.</p>
    *
    * @return The command executor
    */
@@ -134,6 +150,37 @@ public class ParametricBuilder {
     this.commandExecutor = commandExecutor;
   }
 
+  /**
+   * Get the executor used to wait for futures returned by the command executor that are not a {@link
+   * com.google.common.util.concurrent.ListenableFuture}. <p>Each such future blocks a thread of this executor until it
+   * completes. By default, a fixed pool of daemon threads (one per available processor) is created when first
+   * needed.</p>
+   *
+   * @return The executor
+   */
+  public synchronized Executor getFutureListenerExecutor() {
+    if (futureListenerExecutor == null) {
+      futureListenerExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                            new ThreadFactoryBuilder()
+                                                                .setDaemon(true)
+                                                                .setNameFormat("intake-future-listener-%d")
+                                                                .build());
+    }
+    return futureListenerExecutor;
+  }
+
+  /**
+   * Set the executor used to wait for futures returned by the command executor that are not a {@link
+   * com.google.common.util.concurrent.ListenableFuture}. <p>The executor should be bounded. If all of its threads are
+   * busy, completion of further commands is only noticed once a thread becomes free.</p>
+   *
+   * @param futureListenerExecutor The executor
+   */
+  public synchronized void setFutureListenerExecutor(Executor futureListenerExecutor) {
+    checkNotNull(futureListenerExecutor, "futureListenerExecutor");
+    this.futureListenerExecutor = futureListenerExecutor;
+  }
+
   /**
    * Build a list of commands from methods specially annotated with {@link Command} (and other relevant annotations) and
    * register them all with the given {@link Dispatcher}.
@@ -190,6 +237,109 @@ public class ParametricBuilder {
     this.resourceProvider = resourceProvider;
   }
 
+  /**
+   * Get whether commands built from methods are invoked through method handles instead of reflection.
+   *
+   * @return Whether method handles are used
+   */
+  public boolean isUseMethodHandles() {
+    return useMethodHandles;
+  }
+
+  /**
+   * Set whether commands built from methods are invoked through method handles instead of reflection. <p>Method
+   * handles are bound to their method when the command is built, which avoids the access checks and argument copying
+   * of {@link Method#invoke(Object, Object...)} on every call. Methods that cannot be accessed through a method handle
+   * always fall back to reflection.</p> <p>This setting only affects commands that are built after it was changed and
+   * is enabled by default.</p>
+   *
+   * @param useMethodHandles Whether method handles should be used
+   */
+  public void setUseMethodHandles(boolean useMethodHandles) {
+    this.useMethodHandles = useMethodHandles;
+  }
+
+  /**
+   * Get whether the structures used to invoke a command are reused by the next invocation on the same thread.
+   *
+   * @return Whether invocation state is pooled
+   */
+  public boolean isPoolInvocationState() {
+    return poolInvocationState;
+  }
+
+  /**
+   * Set whether the structures used to invoke a command are reused by the next invocation on the same thread. <p>Each
+   * thread keeps one list of invocation handlers and one task that is submitted to the {@link CommandExecutor}. A
+   * command that is called while another command is running on the same thread, or whose invocation was interrupted
+   * while the task may still be running, allocates fresh structures instead. The parsed arguments and the {@link
+   * CommandArgs} are never pooled, because they are passed to handlers and stored in the namespace where they may be
+   * kept beyond the invocation.</p> <p>Pooling is disabled by default. It does not pay off if commands are called on
+   * many short-lived threads.</p>
+   *
+   * @param poolInvocationState Whether invocation state should be pooled
+   */
+  public void setPoolInvocationState(boolean poolInvocationState) {
+    this.poolInvocationState = poolInvocationState;
+  }
+
+  /**
+   * Get the invocation state of the current thread if pooling is enabled and the state is not already in use.
+   *
+   * @return The state, or null if a new one should be used
+   */
+  @Nullable
+  InvocationState acquireInvocationState() {
+    if (!poolInvocationState) {
+      return null;
+    }
+
+    InvocationState state = invocationState.get();
+    if (state.inUse) {
+      return null;
+    }
+
+    state.inUse = true;
+    return state;
+  }
+
+  /**
+   * Return the invocation state of the current thread after an invocation.
+   *
+   * @param state    The state returned by {@link #acquireInvocationState()}
+   * @param reusable Whether the state is no longer referenced by a running task
+   */
+  void releaseInvocationState(InvocationState state, boolean reusable) {
+    if (reusable) {
+      state.handlers.clear();
+      state.task.clear();
+      state.inUse = false;
+    } else {
+      invocationState.remove();
+    }
+  }
+
+  /**
+   * Get the invocation handlers for a new invocation. <p>Handlers of {@link SharedInvokeListener}s are reused, all
+   * other listeners are asked to create a new handler.</p>
+   *
+   * @param state The pooled invocation state, or null
+   * @return A list of invocation handlers
+   */
+  List<InvokeHandler> createInvokeHandlers(@Nullable InvocationState state) {
+    List<InvokeHandler> allSharedHandlers = this.allSharedHandlers;
+    if (allSharedHandlers != null) {
+      return allSharedHandlers;
+    }
+
+    List<InvokeHandler> handlers = state != null ? state.handlers : new ArrayList<InvokeHandler>(invokeListeners.size());
+    for (int i = 0; i < invokeListeners.size(); i++) {
+      InvokeHandler handler = sharedHandlers.get(i);
+      handlers.add(handler != null ? handler : invokeListeners.get(i).createInvokeHandler());
+    }
+    return handlers;
+  }
+
   /**
    * Get a list of invocation listeners.
    *
@@ -200,11 +350,12 @@ public class ParametricBuilder {
   }
 
   /**
-   * Get the list of exception converters.
+   * Get the exception converters, the most recently added first. The array is replaced when a converter is added
+   * and must not be modified.
    *
-   * @return A list of exception converters
+   * @return An array of exception converters
    */
-  List<ExceptionConverter> getExceptionConverters() {
+  ExceptionConverter[] getExceptionConverters() {
     return exceptionConverters;
   }
 
@@ -227,6 +378,16 @@ public class ParametricBuilder {
     this.authorizer = authorizer;
   }
 
+  /**
+   * Get an authorizer that always forwards to the authorizer that is currently set. <p>Permission indexes refer to
+   * this authorizer, so they stay valid when {@link #setAuthorizer(Authorizer)} is called.</p>
+   *
+   * @return The forwarding authorizer
+   */
+  Authorizer getCurrentAuthorizer() {
+    return currentAuthorizer;
+  }
+
   /**
    * Get the default command suggestions provider that will be used if no suggestions are available.
    *
@@ -246,140 +407,32 @@ public class ParametricBuilder {
     this.defaultCompleter = defaultCompleter;
   }
 
-  // In Guava 18, this function is available under MoreExecutors.sameThreadExecutor().
-  // In Guava 18 this method was renamed to MoreExecutors.directExecutor(), the original one was deprecated and later
-  // removed.
-  // Here we need to support clients running Guava 10 - 22, so we need to supply this function by ourselves.
-  private static final class DirectExecutorService extends AbstractExecutorService implements ListeningExecutorService {
-
-    @Override
-    protected final <T> ListenableFutureTask<T> newTaskFor(Runnable runnable, T value) {
-      return ListenableFutureTask.create(runnable, value);
-    }
-
-    @Override
-    protected final <T> ListenableFutureTask<T> newTaskFor(Callable<T> callable) {
-      return ListenableFutureTask.create(callable);
-    }
-
-    @Override
-    public ListenableFuture<?> submit(Runnable task) {
-      return (ListenableFuture<?>) super.submit(task);
-    }
-
-    @Override
-    public <T> ListenableFuture<T> submit(Runnable task, @Nullable T result) {
-      return (ListenableFuture<T>) super.submit(task, result);
-    }
-
-    @Override
-    public <T> ListenableFuture<T> submit(Callable<T> task) {
-      return (ListenableFuture<T>) super.submit(task);
-    }
-
-    /**
-     * Lock used whenever accessing the state variables (runningTasks, shutdown) of the executor
-     */
-    private final Object lock = new Object();
-
-    /*
-     * Conceptually, these two variables describe the executor being in
-     * one of three states:
-     *   - Active: shutdown == false
-     *   - Shutdown: runningTasks > 0 and shutdown == true
-     *   - Terminated: runningTasks == 0 and shutdown == true
-     */
-    @GuardedBy("lock")
-    private int runningTasks = 0;
-
-    @GuardedBy("lock")
-    private boolean shutdown = false;
-
-    @Override
-    public void execute(Runnable command) {
-      startTask();
-      try {
-        command.run();
-      } finally {
-        endTask();
-      }
-    }
-
-    @Override
-    public boolean isShutdown() {
-      synchronized (lock) {
-        return shutdown;
-      }
-    }
-
-    @Override
-    public void shutdown() {
-      synchronized (lock) {
-        shutdown = true;
-        if (runningTasks == 0) {
-          lock.notifyAll();
-        }
-      }
-    }
-
-    // See newDirectExecutorService javadoc for unusual behavior of this method.
+  /**
+   * Forwards to the authorizer of this builder, asking it about several permissions at once if it supports that.
+   */
+  private final class CurrentAuthorizer implements BatchAuthorizer {
     @Override
-    public List<Runnable> shutdownNow() {
-      shutdown();
-      return Collections.emptyList();
+    public boolean testPermission(Namespace namespace, String permission) {
+      return authorizer.testPermission(namespace, permission);
     }
 
     @Override
-    public boolean isTerminated() {
-      synchronized (lock) {
-        return shutdown && runningTasks == 0;
+    public BitSet testPermissions(Namespace namespace, Collection<String> permissions) {
+      Authorizer authorizer = ParametricBuilder.this.authorizer;
+      if (authorizer instanceof BatchAuthorizer) {
+        return ((BatchAuthorizer) authorizer).testPermissions(namespace, permissions);
       }
-    }
 
-    @Override
-    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
-      long nanos = unit.toNanos(timeout);
-      synchronized (lock) {
-        while (true) {
-          if (shutdown && runningTasks == 0) {
-            return true;
-          } else if (nanos <= 0) {
-            return false;
-          } else {
-            long now = System.nanoTime();
-            TimeUnit.NANOSECONDS.timedWait(lock, nanos);
-            nanos -= System.nanoTime() - now; // subtract the actual time we waited
-          }
-        }
-      }
-    }
-
-    /**
-     * Checks if the executor has been shut down and increments the running task count.
-     *
-     * @throws RejectedExecutionException if the executor has been previously shutdown
-     */
-    private void startTask() {
-      synchronized (lock) {
-        if (shutdown) {
-          throw new RejectedExecutionException("Executor already shutdown");
-        }
-        runningTasks++;
-      }
-    }
-
-    /**
-     * Decrements the running task count.
-     */
-    private void endTask() {
-      synchronized (lock) {
-        int numRunning = --runningTasks;
-        if (numRunning == 0) {
-          lock.notifyAll();
+      BitSet granted = new BitSet(permissions.size());
+      int i = 0;
+      for (String permission : permissions) {
+        if (authorizer.testPermission(namespace, permission)) {
+          granted.set(i);
         }
+        i++;
       }
+      return granted;
     }
   }
 
-
 }
@@ -0,0 +1,113 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.CommandArgs;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * A provider that can also provide its values as primitives.
+ *
+ * <p>When a provider that implements one of the nested interfaces is bound
+ * to the matching primitive type, such as {@link OfInt} to {@code int}, the
+ * {@link ArgumentParser} stores the values in an {@link ArgumentFrame}
+ * without boxing them, and commands created by the {@link ParametricBuilder}
+ * receive them the same way.</p>
+ *
+ * @param <T> The boxed type of value
+ */
+public interface PrimitiveProvider<T> extends Provider<T> {
+
+    /**
+     * Provides {@code int} values.
+     */
+    interface OfInt extends PrimitiveProvider<Integer> {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        int getInt(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+    /**
+     * Provides {@code long} values.
+     */
+    interface OfLong extends PrimitiveProvider<Long> {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        long getLong(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+    /**
+     * Provides {@code double} values.
+     */
+    interface OfDouble extends PrimitiveProvider<Double> {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        double getDouble(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+    /**
+     * Provides {@code boolean} values.
+     */
+    interface OfBoolean extends PrimitiveProvider<Boolean> {
+
+        /**
+         * Provide a value given the arguments.
+         *
+         * @param arguments The arguments
+         * @param modifiers The modifiers on the parameter
+         * @return The value provided
+         * @throws ArgumentException If there is a problem with the argument
+         * @throws ProvisionException If there is a problem with the provider
+         */
+        boolean getBoolean(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException, ProvisionException;
+
+    }
+
+}
@@ -0,0 +1,398 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A {@link CommandExecutor} that runs the commands of each subject in the
+ * order in which they were submitted, while commands of different subjects
+ * run in parallel.
+ *
+ * <p>The subject of a command is the value stored in its {@link Namespace}
+ * under the configured key, such as the sender of the command. Commands
+ * without a subject are not ordered. Commands are run by the given
+ * {@link Executor}; on Java 21 and newer, an executor that starts a virtual
+ * thread per task allows thousands of subjects to wait on I/O at the same
+ * time. At most one task per subject is given to the executor at a time:
+ * the commands that a subject issues while one of its commands is running
+ * are queued and run by the same task afterwards.</p>
+ *
+ * <p>A command that is submitted for a subject from within a running
+ * command of the same subject, for example because the command calls
+ * another command for its sender, is run right away in the calling thread.
+ * Queuing it would deadlock, because the outer command waits for it while
+ * holding the subject. Such nested commands are not subject to the
+ * limits.</p>
+ *
+ * <p>The number of commands that are queued or running can be limited per
+ * subject and in total. Commands over either limit are rejected with a
+ * {@link RejectedExecutionException}.</p>
+ */
+public class SerialCommandExecutor implements CommandExecutor {
+
+    private final Executor executor;
+    private final Object subjectKey;
+    private final int maxPendingPerSubject;
+    private final int maxPending;
+    private final Object lock = new Object();
+    private final ThreadLocal<Object> runningSubject = new ThreadLocal<Object>();
+    @GuardedBy("lock") private final Map<Object, Queue<ListenableFutureTask<?>>> queues = new HashMap<Object, Queue<ListenableFutureTask<?>>>();
+    @GuardedBy("lock") private int pending;
+    @GuardedBy("lock") private long submitted;
+    @GuardedBy("lock") private long completed;
+    @GuardedBy("lock") private long rejected;
+
+    private SerialCommandExecutor(Builder builder) {
+        this.executor = builder.executor;
+        this.subjectKey = builder.subjectKey;
+        this.maxPendingPerSubject = builder.maxPendingPerSubject;
+        this.maxPending = builder.maxPending;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task, CommandArgs args) {
+        checkNotNull(task, "task");
+        checkNotNull(args, "args");
+
+        Object subject = args.getNamespace().get(subjectKey);
+        ListenableFutureTask<T> future = ListenableFutureTask.create(task);
+
+        if (subject != null && subject.equals(runningSubject.get())) {
+            // Called from a command of the same subject, which holds the subject until this one completes
+            synchronized (lock) {
+                pending++;
+                submitted++;
+            }
+            try {
+                future.run();
+            } finally {
+                synchronized (lock) {
+                    pending--;
+                    completed++;
+                }
+            }
+            return future;
+        }
+
+        boolean start;
+
+        synchronized (lock) {
+            Queue<ListenableFutureTask<?>> queue = subject != null ? queues.get(subject) : null;
+
+            if (pending >= maxPending) {
+                rejected++;
+                throw new RejectedExecutionException("Too many commands are pending (" + pending + ")");
+            }
+
+            if (queue != null && queue.size() + 1 >= maxPendingPerSubject) {
+                rejected++;
+                throw new RejectedExecutionException("Too many commands are pending for " + subject);
+            }
+
+            pending++;
+            submitted++;
+
+            if (subject == null) {
+                start = true;
+            } else if (queue == null) {
+                // The queue only holds waiting commands; its presence marks that a command is running
+                queues.put(subject, new ArrayDeque<ListenableFutureTask<?>>());
+                start = true;
+            } else {
+                queue.add(future);
+                start = false;
+            }
+        }
+
+        if (start) {
+            try {
+                executor.execute(new Worker(subject, future));
+            } catch (RejectedExecutionException e) {
+                synchronized (lock) {
+                    pending--;
+                    submitted--;
+                    rejected++;
+
+                    // Commands that were queued behind this one in the meantime will never run
+                    Queue<ListenableFutureTask<?>> queue = subject != null ? queues.remove(subject) : null;
+                    if (queue != null) {
+                        for (ListenableFutureTask<?> waiting : queue) {
+                            waiting.cancel(false);
+                            pending--;
+                            completed++;
+                        }
+                    }
+                }
+                throw e;
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Mark a command as completed and get the next command of the subject.
+     *
+     * @param subject the subject, or null
+     * @return the next command, or null if there are none
+     */
+    @Nullable
+    private ListenableFutureTask<?> complete(@Nullable Object subject) {
+        synchronized (lock) {
+            pending--;
+            completed++;
+
+            if (subject == null) {
+                return null;
+            }
+
+            Queue<ListenableFutureTask<?>> queue = queues.get(subject);
+            ListenableFutureTask<?> next = queue.poll();
+            if (next == null) {
+                queues.remove(subject);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Get the number of commands that have been accepted.
+     *
+     * @return the number of commands
+     */
+    public long getSubmittedCount() {
+        synchronized (lock) {
+            return submitted;
+        }
+    }
+
+    /**
+     * Get the number of commands that have finished running, successfully or not.
+     *
+     * @return the number of commands
+     */
+    public long getCompletedCount() {
+        synchronized (lock) {
+            return completed;
+        }
+    }
+
+    /**
+     * Get the number of commands that have been rejected.
+     *
+     * @return the number of commands
+     */
+    public long getRejectedCount() {
+        synchronized (lock) {
+            return rejected;
+        }
+    }
+
+    /**
+     * Get the number of commands that are currently queued or running.
+     *
+     * @return the number of commands
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending;
+        }
+    }
+
+    /**
+     * Get the number of subjects that currently have a command running.
+     *
+     * @return the number of subjects
+     */
+    public int getActiveSubjectCount() {
+        synchronized (lock) {
+            return queues.size();
+        }
+    }
+
+    /**
+     * Runs the commands of one subject until none are left.
+     */
+    private final class Worker implements Runnable {
+        @Nullable
+        private final Object subject;
+        private ListenableFutureTask<?> task;
+
+        private Worker(@Nullable Object subject, ListenableFutureTask<?> task) {
+            this.subject = subject;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            Object previous = runningSubject.get();
+            runningSubject.set(subject);
+            try {
+                while (task != null) {
+                    try {
+                        task.run();
+                    } finally {
+                        task = complete(subject);
+                    }
+                }
+            } finally {
+                if (previous != null) {
+                    runningSubject.set(previous);
+                } else {
+                    runningSubject.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds instances of {@link SerialCommandExecutor}.
+     */
+    public static class Builder {
+
+        @Nullable
+        private Executor executor;
+        @Nullable
+        private Object subjectKey;
+        private int maxPendingPerSubject = Integer.MAX_VALUE;
+        private int maxPending = Integer.MAX_VALUE;
+
+        /**
+         * Get the executor that runs the commands.
+         *
+         * @return the executor
+         */
+        @Nullable
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        /**
+         * Set the executor that runs the commands, such as
+         * {@code Executors.newVirtualThreadPerTaskExecutor()}.
+         *
+         * @param executor the executor
+         * @return this object
+         */
+        public Builder setExecutor(Executor executor) {
+            checkNotNull(executor, "executor");
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Get the key under which the subject is stored in the namespace.
+         *
+         * @return the key
+         */
+        @Nullable
+        public Object getSubjectKey() {
+            return subjectKey;
+        }
+
+        /**
+         * Set the key under which the subject is stored in the namespace.
+         *
+         * @param subjectKey the key
+         * @return this object
+         */
+        public Builder setSubjectKey(Object subjectKey) {
+            checkNotNull(subjectKey, "subjectKey");
+            this.subjectKey = subjectKey;
+            return this;
+        }
+
+        /**
+         * Get the maximum number of commands of a single subject that may be
+         * queued or running.
+         *
+         * @return the limit
+         */
+        public int getMaxPendingPerSubject() {
+            return maxPendingPerSubject;
+        }
+
+        /**
+         * Set the maximum number of commands of a single subject that may be
+         * queued or running.
+         *
+         * @param maxPendingPerSubject the limit, at least 1
+         * @return this object
+         */
+        public Builder setMaxPendingPerSubject(int maxPendingPerSubject) {
+            checkArgument(maxPendingPerSubject > 0, "maxPendingPerSubject must be positive");
+            this.maxPendingPerSubject = maxPendingPerSubject;
+            return this;
+        }
+
+        /**
+         * Get the maximum number of commands that may be queued or running.
+         *
+         * @return the limit
+         */
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        /**
+         * Set the maximum number of commands that may be queued or running.
+         *
+         * @param maxPending the limit, at least 1
+         * @return this object
+         */
+        public Builder setMaxPending(int maxPending) {
+            checkArgument(maxPending > 0, "maxPending must be positive");
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * Create a new executor.
+         *
+         * @return a new executor
+         */
+        public SerialCommandExecutor build() {
+            checkState(executor != null, "An executor must be set");
+            checkState(subjectKey != null, "A subject key must be set");
+            return new SerialCommandExecutor(this);
+        }
+
+    }
+
+}
@@ -97,6 +97,6 @@ public final class DefaultExceptionConverter extends ExceptionConverterHelper {
 
   @ExceptionMatch
   public void convert(InterruptedException e, ExceptionContext context) throws InvocationCommandException {
-    throw new InvocationCommandException("Execution of the command was interrupted", e.getCause());
+    throw new InvocationCommandException("Execution of the command was interrupted", e);
   }
 }
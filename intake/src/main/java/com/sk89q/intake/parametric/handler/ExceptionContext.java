@@ -22,9 +22,12 @@ package com.sk89q.intake.parametric.handler;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.argument.Namespace;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents the context within which an exception occurs.
  *
@@ -34,10 +37,13 @@ public class ExceptionContext {
 
   private final CommandCallable command;
   private final List<String> aliasStack;
+  @Nullable
+  private final Namespace namespace;
 
-  private ExceptionContext(CommandCallable command, List<String> aliasStack) {
+  private ExceptionContext(CommandCallable command, List<String> aliasStack, @Nullable Namespace namespace) {
     this.command = checkNotNull(command, "command");
     this.aliasStack = checkNotNull(aliasStack, "aliasStack");
+    this.namespace = namespace;
   }
 
   public CommandCallable getCommand() {
@@ -48,10 +54,22 @@ public class ExceptionContext {
     return aliasStack;
   }
 
+  /**
+   * Get the namespace of the call that failed, for example to render messages in the locale stored in it.
+   *
+   * @return The namespace, or null if it is not known
+   */
+  @Nullable
+  public Namespace getNamespace() {
+    return namespace;
+  }
+
   public static class Builder {
 
     private CommandCallable command;
     private List<String> aliasStack;
+    @Nullable
+    private Namespace namespace;
 
     public Builder setCommand(CommandCallable command) {
       this.command = command;
@@ -63,8 +81,13 @@ public class ExceptionContext {
       return this;
     }
 
+    public Builder setNamespace(@Nullable Namespace namespace) {
+      this.namespace = namespace;
+      return this;
+    }
+
     public ExceptionContext build() {
-      return new ExceptionContext(command, aliasStack);
+      return new ExceptionContext(command, aliasStack, namespace);
     }
   }
 }
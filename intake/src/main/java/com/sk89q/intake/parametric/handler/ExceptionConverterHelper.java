@@ -19,14 +19,19 @@
 
 package com.sk89q.intake.parametric.handler;
 
+import com.google.common.collect.MapMaker;
 import com.sk89q.intake.CommandException;
 import com.sk89q.intake.InvocationCommandException;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An implementation of an {@link ExceptionConverter} that calls methods defined in subclasses that have been annotated
@@ -38,10 +43,17 @@ import java.util.List;
  *
  * <p>Methods will be called in order of decreasing levels of inheritance (between classes where one inherits the
  * other). For two different inheritance branches, the order between them is undefined.</p>
+ *
+ * <p>The methods that match a class of exception are looked up the first time that class is converted and reused
+ * afterwards.</p>
  */
 public abstract class ExceptionConverterHelper implements ExceptionConverter {
 
+  private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Throwable.class,
+                                                                       ExceptionContext.class);
+
   private final List<ExceptionHandler> handlers;
+  private final ConcurrentMap<Class<?>, ExceptionHandler[]> chains = new MapMaker().weakKeys().makeMap();
 
   @SuppressWarnings("unchecked")
   protected ExceptionConverterHelper() {
@@ -64,75 +76,91 @@ public abstract class ExceptionConverterHelper implements ExceptionConverter {
       }
 
       if (parameters.length == 1) {
-        handlers.add(new LegacyExceptionhandler((Class<? extends Throwable>) throwableCls, method));
+        handlers.add(new ExceptionHandler((Class<? extends Throwable>) throwableCls,
+                                          MethodHandles.dropArguments(bind(method), 1, ExceptionContext.class)));
       } else if (ExceptionContext.class.isAssignableFrom(parameters[1])) {
-        handlers.add(new ExceptionHandler((Class<? extends Throwable>) throwableCls, method));
+        handlers.add(new ExceptionHandler((Class<? extends Throwable>) throwableCls, bind(method)));
       }
     }
 
-    Collections.sort(handlers);
+    Collections.sort(handlers, new Comparator<ExceptionHandler>() {
+      @Override
+      public int compare(ExceptionHandler o1, ExceptionHandler o2) {
+        return o2.depth - o1.depth;
+      }
+    });
 
     this.handlers = handlers;
   }
 
-  @Override
-  public void convert(Throwable t, ExceptionContext context) throws CommandException, InvocationCommandException {
-    Class<?> throwableClass = t.getClass();
-    for (ExceptionHandler handler : handlers) {
-      if (handler.type.isAssignableFrom(throwableClass)) {
-        try {
-          handler.invoke(t, context);
-        } catch (InvocationTargetException e) {
-          if (e.getCause() instanceof CommandException) {
-            throw (CommandException) e.getCause();
-          }
-          throw new InvocationCommandException(e);
-        } catch (IllegalArgumentException e) {
-          throw new InvocationCommandException(e);
-        } catch (IllegalAccessException e) {
-          throw new InvocationCommandException(e);
-        }
-      }
+  private MethodHandle bind(Method method) {
+    try {
+      method.setAccessible(true);
+    } catch (SecurityException ignored) {
+      // Public methods of public classes can still be looked up
     }
-  }
 
-  private class LegacyExceptionhandler extends ExceptionHandler {
+    try {
+      return MethodHandles.lookup().unreflect(method).bindTo(this);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Can't access the exception handler '" + method + "'", e);
+    }
+  }
 
-    protected LegacyExceptionhandler(Class<? extends Throwable> type, Method method) {
-      super(type, method);
+  /**
+   * Get the handlers that match a class of exception, in the order they are called.
+   *
+   * @param type The class of exception
+   * @return The handlers
+   */
+  private ExceptionHandler[] getChain(Class<?> type) {
+    ExceptionHandler[] chain = chains.get(type);
+    if (chain == null) {
+      List<ExceptionHandler> matching = new ArrayList<ExceptionHandler>();
+      for (ExceptionHandler handler : handlers) {
+        if (handler.type.isAssignableFrom(type)) {
+          matching.add(handler);
+        }
+      }
+      chain = matching.toArray(new ExceptionHandler[matching.size()]);
+      chains.put(type, chain);
     }
+    return chain;
+  }
 
-    @Override
-    protected void invoke(Throwable t, ExceptionContext context)
-        throws InvocationTargetException, IllegalAccessException {
-      method.invoke(ExceptionConverterHelper.this, t);
+  @Override
+  public void convert(Throwable t, ExceptionContext context) throws CommandException, InvocationCommandException {
+    for (ExceptionHandler handler : getChain(t.getClass())) {
+      try {
+        handler.handle.invokeExact(t, context);
+      } catch (CommandException e) {
+        throw e;
+      } catch (InvocationCommandException e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new InvocationCommandException(e);
+      }
     }
   }
 
-  private class ExceptionHandler implements Comparable<ExceptionHandler> {
+  private static final class ExceptionHandler {
 
-    protected final Class<? extends Throwable> type;
-    protected final Method method;
+    private final Class<? extends Throwable> type;
+    private final int depth;
+    private final MethodHandle handle;
 
-    protected ExceptionHandler(Class<? extends Throwable> type, Method method) {
+    private ExceptionHandler(Class<? extends Throwable> type, MethodHandle handle) {
       this.type = type;
-      this.method = method;
-    }
-
-    protected void invoke(Throwable t, ExceptionContext context)
-        throws InvocationTargetException, IllegalAccessException {
-      method.invoke(ExceptionConverterHelper.this, t, context);
+      this.depth = depthOf(type);
+      this.handle = handle.asType(HANDLER_TYPE);
     }
 
-    @Override
-    public int compareTo(ExceptionHandler o) {
-      if (type.equals(o.type)) {
-        return 0;
-      } else if (type.isAssignableFrom(o.type)) {
-        return 1;
-      } else {
-        return -1;
+    private static int depthOf(Class<?> type) {
+      int depth = 0;
+      for (Class<?> cls = type.getSuperclass(); cls != null; cls = cls.getSuperclass()) {
+        depth++;
       }
+      return depth;
     }
   }
 
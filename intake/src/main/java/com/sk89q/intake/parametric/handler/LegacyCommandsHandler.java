@@ -33,7 +33,7 @@ import java.util.Set;
  * Handles legacy properties on {@link Command} such as {@link Command#min()} and
  * {@link Command#max()}.
  */
-public class LegacyCommandsHandler extends AbstractInvokeListener implements InvokeHandler {
+public class LegacyCommandsHandler extends AbstractInvokeListener implements InvokeHandler, SharedInvokeListener {
 
     @Override
     public InvokeHandler createInvokeHandler() {
@@ -58,14 +58,10 @@ public class LegacyCommandsHandler extends AbstractInvokeListener implements Inv
                 if (command.max() != -1 && commandArgs.size() > command.max()) {
                     List<String> unconsumedArguments = Lists.newArrayList();
 
-                    while (true) {
-                        try {
-                            String value = commandArgs.next();
-                            if (commandArgs.position() >= command.max()) {
-                                unconsumedArguments.add(value);
-                            }
-                        } catch (MissingArgumentException ignored) {
-                            break;
+                    while (commandArgs.hasNext()) {
+                        String value = commandArgs.next();
+                        if (commandArgs.position() >= command.max()) {
+                            unconsumedArguments.add(value);
                         }
                     }
 
@@ -17,17 +17,17 @@
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
-package com.sk89q.intake.example.i18n;
+package com.sk89q.intake.parametric.handler;
 
-import com.sk89q.intake.example.i18n.util.Messages;
-import com.sk89q.intake.util.i18n.ResourceProvider;
+import com.sk89q.intake.parametric.ParametricBuilder;
 
-public class ExampleResourceProvider implements ResourceProvider {
-
-  private final Messages msg = new Messages(I18nExample.RESOURCE_NAME);
-
-  @Override
-  public String getString(String key) {
-    return msg.getString(key);
-  }
+/**
+ * An {@link InvokeListener} whose {@link InvokeHandler} keeps no state
+ * between calls and can therefore be shared by every invocation.
+ *
+ * <p>{@link ParametricBuilder} calls {@link #createInvokeHandler()} only
+ * once, when the listener is added, and passes the same handler to all
+ * following invocations, which may happen on several threads at once.</p>
+ */
+public interface SharedInvokeListener extends InvokeListener {
 }
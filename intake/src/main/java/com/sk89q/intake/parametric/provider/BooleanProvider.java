@@ -22,14 +22,15 @@ package com.sk89q.intake.parametric.provider;
 import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.CommandArgs;
 import com.sk89q.intake.argument.Namespace;
-import com.sk89q.intake.parametric.Provider;
+import com.sk89q.intake.parametric.DeterministicProvider;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.Collections;
 import java.util.List;
 
-class BooleanProvider implements Provider<Boolean> {
+class BooleanProvider implements PrimitiveProvider.OfBoolean, DeterministicProvider<Boolean> {
 
     static final BooleanProvider INSTANCE = new BooleanProvider();
 
@@ -44,6 +45,11 @@ class BooleanProvider implements Provider<Boolean> {
         return arguments.nextBoolean();
     }
 
+    @Override
+    public boolean getBoolean(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        return arguments.nextBoolean();
+    }
+
     @Override
     public List<String> getSuggestions(String prefix, Namespace locals) {
         return Collections.emptyList();
@@ -0,0 +1,182 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.Provider;
+import com.sk89q.intake.parametric.ProvisionException;
+import com.sk89q.intake.parametric.provider.exception.NoMatchInChoicesException;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Provides one of a changing set of named values, such as the players that
+ * are currently online.
+ *
+ * <p>Names are matched ignoring case. The choices are kept sorted by name in
+ * a concurrent skip list, so that they can be added and removed while
+ * commands are being parsed, lookups and suggestions never block, and
+ * suggestions only visit the names that start with the typed prefix. At
+ * most a fixed number of suggestions is returned.</p>
+ *
+ * @param <T> The type of value
+ */
+public class ChoiceProvider<T> implements Provider<T> {
+
+  private final ConcurrentNavigableMap<String, Map.Entry<String, T>> choices =
+      new ConcurrentSkipListMap<String, Map.Entry<String, T>>();
+  private final String choicesName;
+  private final int maxSuggestions;
+
+  /**
+   * Create a new instance that returns at most 20 suggestions.
+   *
+   * @param choicesName The name of the choices, used in error messages
+   */
+  public ChoiceProvider(String choicesName) {
+    this(choicesName, 20);
+  }
+
+  /**
+   * Create a new instance.
+   *
+   * @param choicesName    The name of the choices, used in error messages
+   * @param maxSuggestions The maximum number of suggestions to return
+   */
+  public ChoiceProvider(String choicesName, int maxSuggestions) {
+    checkNotNull(choicesName, "choicesName");
+    checkArgument(maxSuggestions >= 0, "maxSuggestions must not be negative");
+    this.choicesName = choicesName;
+    this.maxSuggestions = maxSuggestions;
+  }
+
+  /**
+   * Add a choice, replacing any choice whose name only differs in case.
+   *
+   * @param name  The name
+   * @param value The value
+   * @return The value that was replaced, or null
+   */
+  @Nullable
+  public T put(String name, T value) {
+    checkNotNull(name, "name");
+    checkNotNull(value, "value");
+    Map.Entry<String, T> previous = choices.put(fold(name), Maps.immutableEntry(name, value));
+    return previous != null ? previous.getValue() : null;
+  }
+
+  /**
+   * Remove a choice.
+   *
+   * @param name The name, ignoring case
+   * @return The value that was removed, or null
+   */
+  @Nullable
+  public T remove(String name) {
+    checkNotNull(name, "name");
+    Map.Entry<String, T> previous = choices.remove(fold(name));
+    return previous != null ? previous.getValue() : null;
+  }
+
+  /**
+   * Get the value of a choice.
+   *
+   * @param name The name, ignoring case
+   * @return The value, or null if there is no such choice
+   */
+  @Nullable
+  public T getChoice(String name) {
+    checkNotNull(name, "name");
+    Map.Entry<String, T> entry = choices.get(fold(name));
+    return entry != null ? entry.getValue() : null;
+  }
+
+  /**
+   * Get the number of choices.
+   *
+   * @return The number of choices
+   */
+  public int size() {
+    return choices.size();
+  }
+
+  @Override
+  public boolean isProvided() {
+    return false;
+  }
+
+  @Nullable
+  @Override
+  public T get(CommandArgs arguments, List<? extends Annotation> modifiers)
+      throws ArgumentException, ProvisionException {
+    String name = arguments.next();
+    T value = getChoice(name);
+
+    if (value != null) {
+      return value;
+    }
+
+    throw new NoMatchInChoicesException(choicesName, name);
+  }
+
+  @Override
+  public List<String> getSuggestions(String prefix, Namespace locals) {
+    List<String> suggestions = Lists.newArrayList();
+    String test = fold(prefix);
+
+    for (Map.Entry<String, Map.Entry<String, T>> entry : choices.tailMap(test).entrySet()) {
+      if (suggestions.size() >= maxSuggestions || !entry.getKey().startsWith(test)) {
+        break;
+      }
+      suggestions.add(entry.getValue().getKey());
+    }
+
+    return suggestions;
+  }
+
+  private static String fold(String name) {
+    char[] chars = null;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      char folded = Character.toLowerCase(c);
+      if (folded != c) {
+        if (chars == null) {
+          chars = name.toCharArray();
+        }
+        chars[i] = folded;
+      }
+    }
+    return chars != null ? new String(chars) : name;
+  }
+
+}
@@ -21,23 +21,37 @@ package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-class DoubleProvider extends NumberProvider<Double> {
+class DoubleProvider extends NumberProvider<Double> implements PrimitiveProvider.OfDouble {
 
     static final DoubleProvider INSTANCE = new DoubleProvider();
 
+    private DoubleProvider() {
+    }
+
+    private DoubleProvider(double min, double max) {
+        super(min, max);
+    }
+
+    @Override
+    protected DoubleProvider withBounds(double min, double max) {
+        return new DoubleProvider(min, max);
+    }
+
     @Override
     public Double get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        Double v = parseNumericInput(arguments.next());
-        if (v != null) {
-            validate(v, modifiers);
-            return v;
-        } else {
-            return null;
-        }
+        return getDouble(arguments, modifiers);
+    }
+
+    @Override
+    public double getDouble(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        double v = parseDouble(arguments.next());
+        validate(v, modifiers);
+        return v;
     }
 
 }
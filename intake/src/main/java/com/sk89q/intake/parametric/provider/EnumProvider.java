@@ -25,13 +25,16 @@ import com.google.common.collect.Lists;
 import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.CommandArgs;
 import com.sk89q.intake.argument.Namespace;
-import com.sk89q.intake.parametric.Provider;
+import com.sk89q.intake.parametric.DeterministicProvider;
 import com.sk89q.intake.parametric.ProvisionException;
 import com.sk89q.intake.parametric.provider.exception.NoMatchInEnumException;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.annotation.Nullable;
 
@@ -39,22 +42,34 @@ import javax.annotation.Nullable;
  * Searches an enum for a near-matching value.
  * <p>When comparing for a match, both the search and test entry have non-alphanumeric characters stripped.</p>
  *
+ * <p>The simplified names of the constants of an enum are computed once and shared by all providers for that enum, so
+ * that finding a constant takes a single hash lookup and suggestions are found with a binary search.</p>
+ *
  * @param <T> The type of the enum
  */
-public class EnumProvider<T extends Enum<T>> implements Provider<T> {
+public class EnumProvider<T extends Enum<T>> implements DeterministicProvider<T> {
 
-  private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Za-z0-9]");
+  private static final ClassValue<Table<?>> TABLES = new ClassValue<Table<?>>() {
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Table<?> computeValue(Class<?> type) {
+      return new Table(type);
+    }
+  };
 
   private final Class<T> enumClass;
+  private final Table<T> table;
 
   /**
    * Create a new instance.
    *
    * @param enumClass The enum for the class
    */
+  @SuppressWarnings("unchecked")
   public EnumProvider(Class<T> enumClass) {
     checkNotNull(enumClass, "enumClass");
     this.enumClass = enumClass;
+    this.table = (Table<T>) TABLES.get(enumClass);
   }
 
   @Override
@@ -67,12 +82,10 @@ public class EnumProvider<T extends Enum<T>> implements Provider<T> {
   public T get(CommandArgs arguments, List<? extends Annotation> modifiers)
       throws ArgumentException, ProvisionException {
     String name = arguments.next();
-    String test = simplify(name);
+    T entry = table.constants.get(simplify(name));
 
-    for (T entry : enumClass.getEnumConstants()) {
-      if (simplify(entry.name()).equalsIgnoreCase(test)) {
-        return entry;
-      }
+    if (entry != null) {
+      return entry;
     }
 
     throw new NoMatchInEnumException(enumClass.getSimpleName());
@@ -82,19 +95,69 @@ public class EnumProvider<T extends Enum<T>> implements Provider<T> {
     public List<String> getSuggestions(String prefix, Namespace locals) {
         List<String> suggestions = Lists.newArrayList();
         String test = simplify(prefix);
+        String[] names = table.sortedNames;
 
-    for (T entry : enumClass.getEnumConstants()) {
-      String name = simplify(entry.name());
-      if (name.startsWith(test)) {
-        suggestions.add(entry.name().toLowerCase());
-      }
+    // The names that start with the prefix follow each other in sorted order
+    int index = Arrays.binarySearch(names, test);
+    for (int i = index >= 0 ? index : -index - 1; i < names.length && names[i].startsWith(test); i++) {
+      suggestions.add(table.sortedSuggestions[i]);
     }
 
     return suggestions;
   }
 
+  /**
+   * Lowercase the given name and strip all characters other than letters and digits.
+   *
+   * @param t The name
+   * @return The simplified name
+   */
   private static String simplify(String t) {
-    return NON_ALPHANUMERIC.matcher(t.toLowerCase()).replaceAll("");
+    StringBuilder builder = null;
+    for (int i = 0; i < t.length(); i++) {
+      char c = t.charAt(i);
+      char lower = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : Character.toLowerCase(c);
+      boolean keep = (lower >= 'a' && lower <= 'z') || (lower >= '0' && lower <= '9');
+      if (builder == null) {
+        if (keep && lower == c) {
+          continue;
+        }
+        builder = new StringBuilder(t.length()).append(t, 0, i);
+      }
+      if (keep) {
+        builder.append(lower);
+      }
+    }
+    return builder != null ? builder.toString() : t;
+  }
+
+  /**
+   * The constants of an enum, indexed by their simplified names.
+   *
+   * @param <T> The type of the enum
+   */
+  private static final class Table<T extends Enum<T>> {
+    private final Map<String, T> constants;
+    private final String[] sortedNames;
+    private final String[] sortedSuggestions;
+
+    private Table(Class<T> enumClass) {
+      Map<String, T> constants = new HashMap<String, T>();
+      TreeMap<String, String> suggestions = new TreeMap<String, String>();
+
+      for (T entry : enumClass.getEnumConstants()) {
+        String name = simplify(entry.name());
+        // The first constant with a name wins, as the names are compared in declaration order
+        if (!constants.containsKey(name)) {
+          constants.put(name, entry);
+          suggestions.put(name, entry.name().toLowerCase());
+        }
+      }
+
+      this.constants = constants;
+      this.sortedNames = suggestions.keySet().toArray(new String[suggestions.size()]);
+      this.sortedSuggestions = suggestions.values().toArray(new String[suggestions.size()]);
+    }
   }
 
 }
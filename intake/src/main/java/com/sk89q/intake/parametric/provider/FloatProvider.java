@@ -30,6 +30,18 @@ class FloatProvider extends NumberProvider<Float> {
 
     static final FloatProvider INSTANCE = new FloatProvider();
 
+    private FloatProvider() {
+    }
+
+    private FloatProvider(double min, double max) {
+        super(min, max);
+    }
+
+    @Override
+    protected FloatProvider withBounds(double min, double max) {
+        return new FloatProvider(min, max);
+    }
+
     @Nullable
     @Override
     public Float get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
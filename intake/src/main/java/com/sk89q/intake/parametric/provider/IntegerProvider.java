@@ -21,24 +21,37 @@ package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.PrimitiveProvider;
 
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-class IntegerProvider extends NumberProvider<Integer> {
+class IntegerProvider extends NumberProvider<Integer> implements PrimitiveProvider.OfInt {
 
     static final IntegerProvider INSTANCE = new IntegerProvider();
 
+    private IntegerProvider() {
+    }
+
+    private IntegerProvider(double min, double max) {
+        super(min, max);
+    }
+
+    @Override
+    protected IntegerProvider withBounds(double min, double max) {
+        return new IntegerProvider(min, max);
+    }
+
     @Override
     public Integer get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        Double v = parseNumericInput(arguments.next());
-        if (v != null) {
-            int intValue = v.intValue();
-            validate(intValue, modifiers);
-            return intValue;
-        } else {
-            return null;
-        }
+        return getInt(arguments, modifiers);
+    }
+
+    @Override
+    public int getInt(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        int v = (int) parseDouble(arguments.next());
+        validate(v, modifiers);
+        return v;
     }
 
 }
@@ -0,0 +1,40 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import com.sk89q.intake.parametric.AbstractModule;
+
+/**
+ * Provides values for {@code long} and {@link Long}.
+ *
+ * <p>These types are not bound by {@link PrimitivesModule}, so that
+ * installing it does not conflict with existing bindings of your own.
+ * Install this module next to it to have {@code long} parameters parsed
+ * without boxing.</p>
+ */
+public final class LongModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        bind(Long.class).toProvider(LongProvider.INSTANCE);
+        bind(long.class).toProvider(LongProvider.INSTANCE);
+    }
+
+}
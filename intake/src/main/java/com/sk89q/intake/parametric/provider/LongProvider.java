@@ -0,0 +1,63 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.parametric.PrimitiveProvider;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+class LongProvider extends NumberProvider<Long> implements PrimitiveProvider.OfLong {
+
+    static final LongProvider INSTANCE = new LongProvider();
+
+    private LongProvider() {
+    }
+
+    private LongProvider(double min, double max) {
+        super(min, max);
+    }
+
+    @Override
+    protected LongProvider withBounds(double min, double max) {
+        return new LongProvider(min, max);
+    }
+
+    @Override
+    public Long get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        return getLong(arguments, modifiers);
+    }
+
+    @Override
+    public long getLong(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+        String input = arguments.next();
+        long v;
+        try {
+            v = Long.parseLong(input);
+        } catch (NumberFormatException ignored) {
+            v = (long) parseDouble(input);
+        }
+        validate(v, modifiers);
+        return v;
+    }
+
+}
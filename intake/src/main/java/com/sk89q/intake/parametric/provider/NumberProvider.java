@@ -21,6 +21,8 @@ package com.sk89q.intake.parametric.provider;
 
 import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.ConfigurableProvider;
+import com.sk89q.intake.parametric.DeterministicProvider;
 import com.sk89q.intake.parametric.Provider;
 import com.sk89q.intake.parametric.annotation.Range;
 import com.sk89q.intake.parametric.provider.exception.NonnumericalInputException;
@@ -33,13 +35,58 @@ import java.util.List;
 
 import javax.annotation.Nullable;
 
-abstract class NumberProvider<T extends Number> implements Provider<T> {
+abstract class NumberProvider<T extends Number> implements ConfigurableProvider<T>, DeterministicProvider<T> {
+
+    private final boolean configured;
+    private final double min;
+    private final double max;
+
+    /**
+     * Create a provider that reads the bounds from the modifiers of each call.
+     */
+    NumberProvider() {
+        this.configured = false;
+        this.min = Double.NEGATIVE_INFINITY;
+        this.max = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Create a provider for a parameter with the given bounds.
+     *
+     * @param min the minimum value
+     * @param max the maximum value
+     */
+    NumberProvider(double min, double max) {
+        this.configured = true;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Create a provider for a parameter with the given bounds.
+     *
+     * @param min the minimum value
+     * @param max the maximum value
+     * @return a new provider
+     */
+    protected abstract NumberProvider<T> withBounds(double min, double max);
 
     @Override
     public boolean isProvided() {
         return false;
     }
 
+    @Override
+    public Provider<T> configure(List<? extends Annotation> modifiers) {
+        for (Annotation modifier : modifiers) {
+            if (modifier instanceof Range) {
+                Range range = (Range) modifier;
+                return withBounds(range.min(), range.max());
+            }
+        }
+        return withBounds(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
     @Override
     public List<String> getSuggestions(String prefix, Namespace locals) {
         return Collections.emptyList();
@@ -66,13 +113,38 @@ abstract class NumberProvider<T extends Number> implements Provider<T> {
     }
 
     /**
-     * Validate a number value using relevant modifiers.
+     * Parse numeric input as a {@code double}.
+     *
+     * @param input input
+     * @return a number
+     * @throws ArgumentParseException thrown on parse error
+     */
+    protected static double parseDouble(String input) throws ArgumentParseException {
+        try {
+            return Double.parseDouble(input);
+        } catch (NumberFormatException ignored) {
+            throw new NonnumericalInputException(input);
+        }
+    }
+
+    /**
+     * Validate a number value using the bounds of this provider, or the
+     * relevant modifiers if it was not configured.
      *
      * @param number the number
      * @param modifiers the list of modifiers to scan
      * @throws ArgumentParseException on a validation error
      */
-    protected static void validate(double number, List<? extends Annotation> modifiers) throws ArgumentParseException {
+    protected void validate(double number, List<? extends Annotation> modifiers) throws ArgumentParseException {
+        if (configured) {
+            if (number < min) {
+                throw new UnderRangeException(number, min);
+            } else if (number > max) {
+                throw new OverRangeException(number, max);
+            }
+            return;
+        }
+
         for (Annotation modifier : modifiers) {
             if (modifier instanceof Range) {
                 Range range = (Range) modifier;
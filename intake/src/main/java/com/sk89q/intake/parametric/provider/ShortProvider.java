@@ -29,6 +29,18 @@ class ShortProvider extends NumberProvider<Short> {
 
     static final ShortProvider INSTANCE = new ShortProvider();
 
+    private ShortProvider() {
+    }
+
+    private ShortProvider(double min, double max) {
+        super(min, max);
+    }
+
+    @Override
+    protected ShortProvider withBounds(double min, double max) {
+        return new ShortProvider(min, max);
+    }
+
     @Override
     public Short get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
         Double v = parseNumericInput(arguments.next());
@@ -23,6 +23,9 @@ import com.sk89q.intake.argument.ArgumentException;
 import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.CommandArgs;
 import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.ConfigurableProvider;
+import com.sk89q.intake.parametric.DeterministicProvider;
+import com.sk89q.intake.parametric.IllegalParameterException;
 import com.sk89q.intake.parametric.Provider;
 import com.sk89q.intake.parametric.annotation.Validate;
 import com.sk89q.intake.parametric.provider.exception.StringFormatException;
@@ -30,13 +33,47 @@ import com.sk89q.intake.parametric.provider.exception.StringFormatException;
 import java.lang.annotation.Annotation;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import javax.annotation.Nullable;
 
-class StringProvider implements Provider<String> {
+class StringProvider implements ConfigurableProvider<String>, DeterministicProvider<String> {
 
     static final StringProvider INSTANCE = new StringProvider();
 
+    private final boolean configured;
+    @Nullable
+    private final Pattern pattern;
+
+    /**
+     * Create a provider that reads the pattern from the modifiers of each call.
+     */
+    StringProvider() {
+        this.configured = false;
+        this.pattern = null;
+    }
+
+    /**
+     * Create a provider for a parameter with the given pattern.
+     *
+     * @param pattern the pattern that values must match, or null
+     */
+    StringProvider(@Nullable Pattern pattern) {
+        this.configured = true;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Create a provider for a parameter with the given pattern.
+     *
+     * @param pattern the pattern that values must match, or null
+     * @return a new provider
+     */
+    protected StringProvider withPattern(@Nullable Pattern pattern) {
+        return new StringProvider(pattern);
+    }
+
     @Override
     public boolean isProvided() {
         return false;
@@ -50,23 +87,49 @@ class StringProvider implements Provider<String> {
         return v;
     }
 
+    @Override
+    public Provider<String> configure(List<? extends Annotation> modifiers) {
+        for (Annotation modifier : modifiers) {
+            if (modifier instanceof Validate) {
+                Validate validate = (Validate) modifier;
+
+                if (!validate.regex().isEmpty()) {
+                    try {
+                        return withPattern(Pattern.compile(validate.regex()));
+                    } catch (PatternSyntaxException e) {
+                        throw new IllegalParameterException("The @Validate regex '" + validate.regex() + "' is not valid: " + e.getDescription(), e);
+                    }
+                }
+            }
+        }
+        return withPattern(null);
+    }
+
     @Override
     public List<String> getSuggestions(String prefix, Namespace locals) {
         return Collections.emptyList();
     }
 
     /**
-     * Validate a string value using relevant modifiers.
+     * Validate a string value using the pattern of this provider, or the
+     * relevant modifiers if it was not configured.
      *
      * @param string the string
      * @param modifiers the list of modifiers to scan
      * @throws ArgumentParseException on a validation error
      */
-    protected static void validate(String string, List<? extends Annotation> modifiers) throws ArgumentParseException {
+    protected void validate(String string, List<? extends Annotation> modifiers) throws ArgumentParseException {
         if (string == null) {
             return;
         }
 
+        if (configured) {
+            if (pattern != null && !pattern.matcher(string).matches()) {
+                throw new StringFormatException(pattern.pattern());
+            }
+            return;
+        }
+
         for (Annotation modifier : modifiers) {
             if (modifier instanceof Validate) {
                 Validate validate = (Validate) modifier;
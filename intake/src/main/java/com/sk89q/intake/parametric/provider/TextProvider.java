@@ -26,31 +26,39 @@ import com.sk89q.intake.argument.CommandArgs;
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.util.List;
+import java.util.regex.Pattern;
 
 class TextProvider extends StringProvider {
 
     static final TextProvider INSTANCE = new TextProvider();
 
+    private TextProvider() {
+    }
+
+    private TextProvider(@Nullable Pattern pattern) {
+        super(pattern);
+    }
+
+    @Override
+    protected TextProvider withPattern(@Nullable Pattern pattern) {
+        return new TextProvider(pattern);
+    }
+
     @Nullable
     @Override
     public String get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
-        StringBuilder builder = new StringBuilder();
-        boolean first = true;
-        while (true) {
-            if (!first) {
-                builder.append(" ");
-            }
-            try {
-                builder.append(arguments.next());
-            } catch (MissingArgumentException ignored) {
-                break;
-            }
-            first = false;
+        if (!arguments.hasNext()) {
+            throw MissingArgumentException.instance();
         }
-        if (first) {
-            throw new MissingArgumentException();
+
+        String v = arguments.next();
+        if (arguments.hasNext()) {
+            StringBuilder builder = new StringBuilder(v);
+            while (arguments.hasNext()) {
+                builder.append(" ").append(arguments.next());
+            }
+            v = builder.toString();
         }
-        String v = builder.toString();
         validate(v, modifiers);
         return v;
     }
@@ -0,0 +1,46 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider.exception;
+
+import com.sk89q.intake.argument.ArgumentParseException;
+
+/**
+ * Thrown when a given input does not match any of the choices of a
+ * {@link com.sk89q.intake.parametric.provider.ChoiceProvider}.
+ */
+public class NoMatchInChoicesException extends ArgumentParseException {
+
+  private final String choicesName;
+  private final String input;
+
+  public NoMatchInChoicesException(String choicesName, String input) {
+    super(String.format("No matching value for '%s' found in the '%s' list.", input, choicesName));
+    this.choicesName = choicesName;
+    this.input = input;
+  }
+
+  public String getChoicesName() {
+    return choicesName;
+  }
+
+  public String getInput() {
+    return input;
+  }
+}
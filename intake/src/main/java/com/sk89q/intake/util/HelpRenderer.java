@@ -0,0 +1,153 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util;
+
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.CommandMapping;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.Dispatcher;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Renders the help of every command below a {@link Dispatcher}.
+ *
+ * <p>One line is written per command, such as
+ * {@code /body info [-f] <body> - Shows information about a body}. Commands
+ * are sorted by their primary alias, and nested dispatchers are walked
+ * instead of being listed themselves. Everything is appended directly to
+ * the output.</p>
+ */
+public final class HelpRenderer {
+
+    private final String prefix;
+    @Nullable
+    private final Locale locale;
+
+    /**
+     * Create a new instance without a command prefix.
+     */
+    public HelpRenderer() {
+        this("", null);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param prefix The prefix to write before each command, such as {@code /}
+     * @param locale The locale to render descriptions in, or null to use the
+     *               locale of the namespace, if any, or else the locale of
+     *               their resource provider
+     */
+    public HelpRenderer(String prefix, @Nullable Locale locale) {
+        checkNotNull(prefix, "prefix");
+        this.prefix = prefix;
+        this.locale = locale;
+    }
+
+    /**
+     * Render the help of every command below the given dispatcher.
+     *
+     * @param dispatcher The dispatcher
+     * @param out The output
+     * @throws IOException If the output can't be written to
+     */
+    public void render(Dispatcher dispatcher, Appendable out) throws IOException {
+        render(dispatcher, Collections.<String>emptyList(), null, out);
+    }
+
+    /**
+     * Render the help of every command below the given dispatcher.
+     *
+     * @param dispatcher The dispatcher
+     * @param parentCommands The aliases that lead to the dispatcher
+     * @param namespace The namespace to test permissions with, or null to
+     *                  render every command
+     * @param out The output
+     * @throws IOException If the output can't be written to
+     */
+    public void render(Dispatcher dispatcher, List<String> parentCommands, @Nullable Namespace namespace, Appendable out) throws IOException {
+        checkNotNull(dispatcher, "dispatcher");
+        checkNotNull(parentCommands, "parentCommands");
+        checkNotNull(out, "out");
+        Locale locale = this.locale;
+        if (locale == null && namespace != null) {
+            locale = namespace.get(Locale.class);
+        }
+        render(dispatcher, new ArrayList<String>(parentCommands), namespace, locale, out);
+    }
+
+    private void render(Dispatcher dispatcher, ArrayList<String> path, @Nullable Namespace namespace, @Nullable Locale locale, Appendable out) throws IOException {
+        List<CommandMapping> mappings = new ArrayList<CommandMapping>(dispatcher.getCommands());
+        Collections.sort(mappings, PrimaryAliasComparator.INSTANCE);
+
+        for (CommandMapping mapping : mappings) {
+            CommandCallable callable = mapping.getCallable();
+            if (namespace != null && !callable.testPermission(namespace)) {
+                continue;
+            }
+
+            path.add(mapping.getPrimaryAlias());
+            if (callable instanceof Dispatcher) {
+                render((Dispatcher) callable, path, namespace, locale, out);
+            } else {
+                renderCommand(callable.getDescription(), path, locale, out);
+            }
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private void renderCommand(Description description, List<String> path, @Nullable Locale locale, Appendable out) throws IOException {
+        String usage;
+        String shortDescription;
+        if (locale != null && description instanceof ImmutableDescription) {
+            usage = ((ImmutableDescription) description).getUsage(locale);
+            shortDescription = ((ImmutableDescription) description).getShortDescription(locale);
+        } else {
+            usage = description.getUsage();
+            shortDescription = description.getShortDescription();
+        }
+
+        out.append(prefix);
+        for (int i = 0; i < path.size(); i++) {
+            if (i != 0) {
+                out.append(' ');
+            }
+            out.append(path.get(i));
+        }
+        if (usage != null && !usage.isEmpty()) {
+            out.append(' ').append(usage);
+        }
+        if (shortDescription != null) {
+            out.append(" - ").append(shortDescription);
+        }
+        out.append('\n');
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * An authorizer that can test several permissions in one request.
+ *
+ * <p>Implement this when each test is expensive, for example when it
+ * has to ask a permissions backend.</p>
+ */
+public interface BatchAuthorizer extends Authorizer {
+
+    /**
+     * Tests which of the given permissions are granted for the given
+     * context.
+     *
+     * @param namespace The namespace
+     * @param permissions The permission strings
+     * @return A bit set where bit {@code i} is set if the {@code i}-th
+     *         permission, in iteration order, is granted
+     */
+    BitSet testPermissions(Namespace namespace, Collection<String> permissions);
+
+}
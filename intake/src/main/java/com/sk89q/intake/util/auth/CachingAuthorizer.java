@@ -0,0 +1,207 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.base.Function;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An authorizer that remembers the decisions of another authorizer.
+ *
+ * <p>Decisions are always remembered for the lifetime of the
+ * {@link Namespace} they were made for, which is usually one command
+ * call or one completion request. If a subject function is given,
+ * decisions are also shared between namespaces that belong to the same
+ * subject for a limited time, and can be dropped early with
+ * {@link #invalidate(Object)} or {@link #invalidateAll()}. Namespaces
+ * that are already in use keep the decisions they have seen.</p>
+ *
+ * <p>Missing decisions are requested in one batch if the delegate is a
+ * {@link BatchAuthorizer}.</p>
+ */
+public class CachingAuthorizer implements BatchAuthorizer {
+
+    private final Object namespaceKey = new Object();
+    private final Authorizer delegate;
+    @Nullable
+    private final Function<? super Namespace, ?> subjectFunction;
+    @Nullable
+    private final LoadingCache<Object, Map<String, Boolean>> subjectCache;
+
+    /**
+     * Create a new instance that only remembers decisions per namespace.
+     *
+     * @param delegate the authorizer that makes the decisions
+     */
+    public CachingAuthorizer(Authorizer delegate) {
+        checkNotNull(delegate, "delegate");
+        this.delegate = delegate;
+        this.subjectFunction = null;
+        this.subjectCache = null;
+    }
+
+    /**
+     * Create a new instance that also remembers decisions per subject.
+     *
+     * @param delegate the authorizer that makes the decisions
+     * @param subjectFunction a function that returns the subject of a
+     *                        namespace, or null if it has none
+     * @param duration how long decisions are kept for a subject
+     * @param unit the unit of {@code duration}
+     */
+    public CachingAuthorizer(Authorizer delegate, Function<? super Namespace, ?> subjectFunction, long duration, TimeUnit unit) {
+        checkNotNull(delegate, "delegate");
+        checkNotNull(subjectFunction, "subjectFunction");
+        checkNotNull(unit, "unit");
+        checkArgument(duration > 0, "duration must be positive");
+        this.delegate = delegate;
+        this.subjectFunction = subjectFunction;
+        this.subjectCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(duration, unit)
+                .build(new CacheLoader<Object, Map<String, Boolean>>() {
+                    @Override
+                    public Map<String, Boolean> load(Object key) {
+                        return new ConcurrentHashMap<String, Boolean>();
+                    }
+                });
+    }
+
+    /**
+     * Get the authorizer that makes the decisions.
+     *
+     * @return the delegate
+     */
+    public Authorizer getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Forget the decisions that were made for the given subject.
+     *
+     * @param subject the subject
+     */
+    public void invalidate(Object subject) {
+        if (subjectCache != null) {
+            subjectCache.invalidate(subject);
+        }
+    }
+
+    /**
+     * Forget the decisions that were made for every subject.
+     */
+    public void invalidateAll() {
+        if (subjectCache != null) {
+            subjectCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean testPermission(Namespace namespace, String permission) {
+        Map<String, Boolean> decisions = getDecisions(namespace);
+        Boolean decision = decisions.get(permission);
+        if (decision == null) {
+            decision = delegate.testPermission(namespace, permission);
+            decisions.put(permission, decision);
+        }
+        return decision;
+    }
+
+    @Override
+    public BitSet testPermissions(Namespace namespace, Collection<String> permissions) {
+        Map<String, Boolean> decisions = getDecisions(namespace);
+        BitSet granted = new BitSet(permissions.size());
+        List<String> missing = null;
+        BitSet missingIndexes = null;
+
+        int i = 0;
+        for (String permission : permissions) {
+            Boolean decision = decisions.get(permission);
+            if (decision == null) {
+                if (missing == null) {
+                    missing = new ArrayList<String>();
+                    missingIndexes = new BitSet();
+                }
+                missing.add(permission);
+                missingIndexes.set(i);
+            } else if (decision) {
+                granted.set(i);
+            }
+            i++;
+        }
+
+        if (missing != null) {
+            BitSet missingGranted;
+            if (delegate instanceof BatchAuthorizer) {
+                missingGranted = ((BatchAuthorizer) delegate).testPermissions(namespace, missing);
+            } else {
+                missingGranted = new BitSet(missing.size());
+                for (int j = 0; j < missing.size(); j++) {
+                    if (delegate.testPermission(namespace, missing.get(j))) {
+                        missingGranted.set(j);
+                    }
+                }
+            }
+
+            int j = 0;
+            for (int index = missingIndexes.nextSetBit(0); index >= 0; index = missingIndexes.nextSetBit(index + 1), j++) {
+                boolean decision = missingGranted.get(j);
+                decisions.put(missing.get(j), decision);
+                if (decision) {
+                    granted.set(index);
+                }
+            }
+        }
+
+        return granted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Boolean> getDecisions(Namespace namespace) {
+        Map<String, Boolean> decisions = (Map<String, Boolean>) namespace.get(namespaceKey);
+        if (decisions == null) {
+            Object subject = subjectFunction != null ? subjectFunction.apply(namespace) : null;
+            if (subject != null) {
+                decisions = subjectCache.getUnchecked(subject);
+            } else {
+                decisions = new HashMap<String, Boolean>();
+            }
+            namespace.put(namespaceKey, decisions);
+        }
+        return decisions;
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.argument.Namespace;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The union of the permissions that grant access to at least one command
+ * in a command tree.
+ *
+ * <p>Testing an index asks each authorizer at most once per distinct
+ * permission, instead of walking the tree and testing every command.
+ * A {@link BatchAuthorizer} is asked about all of its permissions in one
+ * request. Commands whose permissions can't be indexed are tested
+ * directly.</p>
+ *
+ * <p>An index is immutable. Whoever holds one has to rebuild it when the
+ * permissions of the tree change.</p>
+ */
+public final class PermissionIndex {
+
+    private static final ClassValue<Boolean> usesIndex = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!Indexable.class.isAssignableFrom(type)) {
+                return false;
+            }
+            try {
+                Class<?> tester = type.getMethod("testPermission", Namespace.class).getDeclaringClass();
+                Class<?> indexer = type.getMethod("getPermissionIndex").getDeclaringClass();
+                return tester == indexer;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final boolean unrestricted;
+    private final ImmutableMap<Authorizer, ImmutableSet<String>> permissions;
+    private final ImmutableList<CommandCallable> callables;
+
+    private PermissionIndex(boolean unrestricted, ImmutableMap<Authorizer, ImmutableSet<String>> permissions, ImmutableList<CommandCallable> callables) {
+        this.unrestricted = unrestricted;
+        this.permissions = permissions;
+        this.callables = callables;
+    }
+
+    /**
+     * Return whether the given command is {@link Indexable} and tests its
+     * permission with the same logic as its index.
+     *
+     * <p>A subclass that overrides {@link CommandCallable#testPermission(Namespace)}
+     * but not {@link Indexable#getPermissionIndex()} would be described
+     * wrongly by the index it inherits, so it is not considered to use
+     * its index.</p>
+     *
+     * @param callable the command
+     * @return true if the index of the command can stand in for its test
+     */
+    public static boolean usesIndex(CommandCallable callable) {
+        checkNotNull(callable, "callable");
+        return usesIndex.get(callable.getClass());
+    }
+
+    /**
+     * Return whether the tree contains a command that requires no
+     * permission at all.
+     *
+     * @return true if access is always granted
+     */
+    public boolean isUnrestricted() {
+        return unrestricted;
+    }
+
+    /**
+     * Get every indexed permission, regardless of the authorizer that
+     * tests it.
+     *
+     * @return the set of permissions
+     */
+    public Set<String> getPermissions() {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (ImmutableSet<String> set : permissions.values()) {
+            builder.addAll(set);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test whether the given namespace is granted access to at least one
+     * command in the tree.
+     *
+     * @param namespace the namespace
+     * @return whether access is granted
+     */
+    public boolean testPermission(Namespace namespace) {
+        if (unrestricted) {
+            return true;
+        }
+
+        for (Map.Entry<Authorizer, ImmutableSet<String>> entry : permissions.entrySet()) {
+            Authorizer authorizer = entry.getKey();
+            if (authorizer instanceof BatchAuthorizer) {
+                if (!((BatchAuthorizer) authorizer).testPermissions(namespace, entry.getValue()).isEmpty()) {
+                    return true;
+                }
+            } else {
+                for (String permission : entry.getValue()) {
+                    if (authorizer.testPermission(namespace, permission)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        for (CommandCallable callable : callables) {
+            if (callable.testPermission(namespace)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Create a new builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Implemented by commands that can describe their permissions with
+     * an index.
+     *
+     * <p>Parents may keep the returned index for as long as the command
+     * is registered with them, so it must not become out of date. The
+     * exception is {@code SimpleDispatcher}, which tells its parents when
+     * its commands change.</p>
+     */
+    public interface Indexable {
+
+        /**
+         * Get the index of the permissions that grant access to this
+         * command.
+         *
+         * @return the index
+         */
+        PermissionIndex getPermissionIndex();
+
+    }
+
+    /**
+     * Builds instances of {@link PermissionIndex}.
+     */
+    public static final class Builder {
+
+        private boolean unrestricted;
+        private final Map<Authorizer, Set<String>> permissions = new LinkedHashMap<Authorizer, Set<String>>();
+        private final Set<CommandCallable> callables = new LinkedHashSet<CommandCallable>();
+
+        private Builder() {
+        }
+
+        /**
+         * Grant access unconditionally.
+         *
+         * @return this object
+         */
+        public Builder addUnrestricted() {
+            unrestricted = true;
+            return this;
+        }
+
+        /**
+         * Grant access to holders of any of the given permissions.
+         *
+         * @param authorizer the authorizer that tests the permissions
+         * @param permissions the permissions
+         * @return this object
+         */
+        public Builder addPermissions(Authorizer authorizer, Iterable<String> permissions) {
+            checkNotNull(authorizer, "authorizer");
+            checkNotNull(permissions, "permissions");
+            Set<String> set = this.permissions.get(authorizer);
+            if (set == null) {
+                set = new LinkedHashSet<String>();
+                this.permissions.put(authorizer, set);
+            }
+            for (String permission : permissions) {
+                set.add(permission);
+            }
+            return this;
+        }
+
+        /**
+         * Grant access to whoever is granted access to the given command.
+         *
+         * <p>If the command {@link #usesIndex(CommandCallable) uses its index},
+         * the index is merged into this one, otherwise the command is
+         * tested directly.</p>
+         *
+         * @param callable the command
+         * @return this object
+         */
+        public Builder addCallable(CommandCallable callable) {
+            checkNotNull(callable, "callable");
+            if (usesIndex(callable)) {
+                return addAll(((Indexable) callable).getPermissionIndex());
+            }
+            callables.add(callable);
+            return this;
+        }
+
+        /**
+         * Merge another index into this one.
+         *
+         * @param index the index
+         * @return this object
+         */
+        public Builder addAll(PermissionIndex index) {
+            checkNotNull(index, "index");
+            if (index.unrestricted) {
+                unrestricted = true;
+            }
+            for (Map.Entry<Authorizer, ImmutableSet<String>> entry : index.permissions.entrySet()) {
+                addPermissions(entry.getKey(), entry.getValue());
+            }
+            callables.addAll(index.callables);
+            return this;
+        }
+
+        /**
+         * Create the index.
+         *
+         * @return the index
+         */
+        public PermissionIndex build() {
+            if (unrestricted) {
+                // Nothing else is ever tested
+                return new PermissionIndex(true, ImmutableMap.<Authorizer, ImmutableSet<String>>of(), ImmutableList.<CommandCallable>of());
+            }
+
+            ImmutableMap.Builder<Authorizer, ImmutableSet<String>> permissions = ImmutableMap.builder();
+            for (Map.Entry<Authorizer, Set<String>> entry : this.permissions.entrySet()) {
+                permissions.put(entry.getKey(), ImmutableSet.copyOf(entry.getValue()));
+            }
+            return new PermissionIndex(false, permissions.build(), ImmutableList.copyOf(callables));
+        }
+
+    }
+
+}
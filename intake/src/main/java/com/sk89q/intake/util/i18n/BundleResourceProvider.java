@@ -0,0 +1,258 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.i18n;
+
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.intake.argument.Namespace;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link LocalizedResourceProvider} that reads its resources from a {@link ResourceBundle}.
+ *
+ * <p>The messages of a locale are copied into an immutable map the first time the locale is used, so the bundle is
+ * only looked up once per locale. Messages that are formatted with arguments are parsed into a {@link MessageFormat}
+ * once and copied for every call, because {@code MessageFormat} is not thread-safe.</p>
+ *
+ * <p>The locale of a command call is read from the {@link Namespace}, where it is stored under {@code Locale.class}.
+ * If there is none, the default locale of this provider is used. Unless a default locale was given, that is the
+ * default locale of the JVM at the time of the call.</p>
+ *
+ * <p>A missing message is logged and replaced by {@code ${key}}.</p>
+ */
+public class BundleResourceProvider implements LocalizedResourceProvider {
+
+  private static final Logger log = Logger.getLogger(BundleResourceProvider.class.getCanonicalName());
+
+  private final String bundleName;
+  private final ClassLoader classLoader;
+  @Nullable
+  private final Locale defaultLocale;
+  private final ConcurrentMap<Locale, Table> tables = new ConcurrentHashMap<Locale, Table>();
+
+  /**
+   * Create a new instance that follows the default locale of the JVM.
+   *
+   * @param bundleName the base name of the resource bundle
+   */
+  public BundleResourceProvider(String bundleName) {
+    this(bundleName, BundleResourceProvider.class.getClassLoader());
+  }
+
+  /**
+   * Create a new instance that follows the default locale of the JVM.
+   *
+   * @param bundleName the base name of the resource bundle
+   * @param classLoader the class loader to load the bundle with
+   */
+  public BundleResourceProvider(String bundleName, ClassLoader classLoader) {
+    checkNotNull(bundleName, "bundleName");
+    checkNotNull(classLoader, "classLoader");
+    this.bundleName = bundleName;
+    this.defaultLocale = null;
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Create a new instance.
+   *
+   * @param bundleName the base name of the resource bundle
+   * @param defaultLocale the locale to use if none is given
+   * @param classLoader the class loader to load the bundle with
+   */
+  public BundleResourceProvider(String bundleName, Locale defaultLocale, ClassLoader classLoader) {
+    checkNotNull(bundleName, "bundleName");
+    checkNotNull(defaultLocale, "defaultLocale");
+    checkNotNull(classLoader, "classLoader");
+    this.bundleName = bundleName;
+    this.defaultLocale = defaultLocale;
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Gets the locale of the given namespace.
+   *
+   * @param namespace the namespace
+   * @return the locale stored in the namespace, or the default locale of this provider
+   */
+  public Locale getLocale(Namespace namespace) {
+    Locale locale = namespace.get(Locale.class);
+    return locale != null ? locale : getLocale();
+  }
+
+  @Override
+  public Locale getLocale() {
+    return defaultLocale != null ? defaultLocale : Locale.getDefault();
+  }
+
+  @Override
+  public String getString(String key) {
+    return getString(key, getLocale());
+  }
+
+  @Override
+  public String getString(String key, Locale locale) {
+    String message = getTable(locale).messages.get(key);
+    if (message == null) {
+      logMissing(key, locale);
+      return "${" + key + "}";
+    }
+    return message;
+  }
+
+  /**
+   * Gets the message that is associated with the given {@code key} in the locale of the given namespace.
+   *
+   * @param namespace the namespace
+   * @param key the key
+   * @return the corresponding message
+   */
+  public String getString(Namespace namespace, String key) {
+    return getString(key, getLocale(namespace));
+  }
+
+  /**
+   * Formats the message that is associated with the given {@code key} with the given arguments, using the default
+   * locale.
+   *
+   * @param key the key
+   * @param args the arguments
+   * @return the formatted message
+   * @see MessageFormat
+   */
+  public String format(String key, Object... args) {
+    return format(getLocale(), key, args);
+  }
+
+  /**
+   * Formats the message that is associated with the given {@code key} with the given arguments, using the locale of
+   * the given namespace.
+   *
+   * @param namespace the namespace
+   * @param key the key
+   * @param args the arguments
+   * @return the formatted message
+   * @see MessageFormat
+   */
+  public String format(Namespace namespace, String key, Object... args) {
+    return format(getLocale(namespace), key, args);
+  }
+
+  /**
+   * Formats the message that is associated with the given {@code key} with the given arguments.
+   *
+   * @param locale the locale
+   * @param key the key
+   * @param args the arguments
+   * @return the formatted message
+   * @see MessageFormat
+   */
+  public String format(Locale locale, String key, Object... args) {
+    MessageFormat format = getTable(locale).getFormat(key);
+    if (format == null) {
+      logMissing(key, locale);
+      return "${" + key + "}:" + Arrays.toString(args);
+    }
+    return format.format(args);
+  }
+
+  private Table getTable(Locale locale) {
+    Table table = tables.get(locale);
+    if (table == null) {
+      table = new Table(locale, load(locale));
+      Table existing = tables.putIfAbsent(locale, table);
+      if (existing != null) {
+        table = existing;
+      }
+    }
+    return table;
+  }
+
+  private ImmutableMap<String, String> load(Locale locale) {
+    ResourceBundle bundle;
+    try {
+      bundle = ResourceBundle.getBundle(bundleName, locale, classLoader);
+    } catch (MissingResourceException e) {
+      log.log(Level.WARNING, "The resource bundle '" + bundleName + "' is missing.", e);
+      return ImmutableMap.of();
+    }
+
+    ImmutableMap.Builder<String, String> messages = ImmutableMap.builder();
+    for (String key : bundle.keySet()) {
+      messages.put(key, bundle.getString(key));
+    }
+    return messages.build();
+  }
+
+  private void logMissing(String key, Locale locale) {
+    log.log(Level.WARNING, "Translation for '" + key + "' in " + locale + " is missing.");
+  }
+
+  /**
+   * The messages of one locale and the formats that have been parsed from them.
+   */
+  private static final class Table {
+
+    private final Locale locale;
+    private final ImmutableMap<String, String> messages;
+    private final ConcurrentMap<String, MessageFormat> formats = new ConcurrentHashMap<String, MessageFormat>();
+
+    private Table(Locale locale, ImmutableMap<String, String> messages) {
+      this.locale = locale;
+      this.messages = messages;
+    }
+
+    /**
+     * Get a copy of the format of the given message that can be used by the calling thread.
+     *
+     * @param key the key of the message
+     * @return the format, or null if there is no such message
+     */
+    @Nullable
+    private MessageFormat getFormat(String key) {
+      MessageFormat prototype = formats.get(key);
+      if (prototype == null) {
+        String message = messages.get(key);
+        if (message == null) {
+          return null;
+        }
+        prototype = new MessageFormat(message, locale);
+        MessageFormat existing = formats.putIfAbsent(key, prototype);
+        if (existing != null) {
+          prototype = existing;
+        }
+      }
+      return (MessageFormat) prototype.clone();
+    }
+  }
+
+}
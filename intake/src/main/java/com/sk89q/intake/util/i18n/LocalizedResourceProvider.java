@@ -0,0 +1,47 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.i18n;
+
+import java.util.Locale;
+
+/**
+ * A {@link ResourceProvider} that knows which locale it resolves resources for.
+ *
+ * <p>Because the locale is known, users of this interface may cache resolved resources per locale.</p>
+ */
+public interface LocalizedResourceProvider extends ResourceProvider {
+
+  /**
+   * Gets the locale that {@link #getString(String)} currently resolves resources for.
+   *
+   * @return the locale
+   */
+  Locale getLocale();
+
+  /**
+   * Gets the message that is associated with the given {@code key} in the given {@code locale}.
+   *
+   * @param key the key
+   * @param locale the locale
+   * @return the corresponding message
+   */
+  String getString(String key, Locale locale);
+
+}
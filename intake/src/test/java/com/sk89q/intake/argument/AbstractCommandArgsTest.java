@@ -26,6 +26,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 public abstract class AbstractCommandArgsTest {
 
@@ -53,6 +54,21 @@ public abstract class AbstractCommandArgsTest {
         args.next();
     }
 
+    @Test
+    public void testNextPastEnd() throws Exception {
+        CommandArgs args = createCommandArgs(ImmutableList.of("alpha"));
+        assertThat(args.next(), equalTo("alpha"));
+        try {
+            args.next();
+            fail("Expected MissingArgumentException");
+        } catch (MissingArgumentException e) {
+            assertThat(e, sameInstance(MissingArgumentException.instance()));
+            assertThat(e.getStackTrace().length, is(0));
+        }
+        assertThat(args.position(), is(1));
+        assertThat(args.hasNext(), is(false));
+    }
+
     @Test
     public void testNext() throws Exception {
         CommandArgs args = createCommandArgs(ImmutableList.of("alpha", "bravo"));
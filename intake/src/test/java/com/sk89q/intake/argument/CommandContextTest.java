@@ -84,4 +84,65 @@ public class CommandContextTest {
         assertThat(context.argsLength(), is(2));
     }
 
+    @Test
+    public void testQuotedParsing() throws Exception {
+        CommandContext context = new CommandContext("cmd \"alpha  bravo\" -a charlie \"\"");
+        assertThat(context.getString(0), equalTo("alpha  bravo"));
+        assertThat(context.getString(1), equalTo("charlie"));
+        assertThat(context.hasFlag('a'), is(true));
+        assertThat(context.argsLength(), is(2));
+        assertThat(context.getJoinedStrings(1), equalTo("charlie \"\""));
+    }
+
+    @Test
+    public void testArrayArguments() throws Exception {
+        CommandContext context = new CommandContext.Builder()
+                .setArguments(new String[] {"hello world", "x", "", "-a"})
+                .build();
+        assertThat(context.argsLength(), is(2));
+        assertThat(context.getString(0), equalTo("hello world"));
+        assertThat(context.getString(1), equalTo("x"));
+        assertThat(context.hasFlag('a'), is(true));
+        assertThat(context.getSlice(1), equalTo(new String[] {"hello world", "x", "", "-a"}));
+
+        context = new CommandContext(new String[] {"cmd", "\"alpha", "bravo\"", "charlie delta"}, null, false, null);
+        assertThat(context.argsLength(), is(2));
+        assertThat(context.getString(0), equalTo("alpha bravo"));
+        assertThat(context.getString(1), equalTo("charlie delta"));
+    }
+
+    @Test
+    public void testFlagTerminator() throws Exception {
+        CommandContext context = new CommandContext.Builder().setArguments("-a -- -b alpha").build();
+        assertThat(context.hasFlag('a'), is(true));
+        assertThat(context.hasFlag('b'), is(false));
+        assertThat(context.getString(0), equalTo("-b"));
+        assertThat(context.getString(1), equalTo("alpha"));
+        assertThat(context.argsLength(), is(2));
+    }
+
+    @Test
+    public void testRepeatedFlag() throws Exception {
+        CommandContext context = new CommandContext("cmd -a -a");
+        assertThat(context.getFlagsMap().size(), is(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMissingArgument() throws Exception {
+        new CommandContext("cmd alpha").getString(1);
+    }
+
+    @Test
+    public void testSuggestionContext() throws Exception {
+        CommandContext context = new CommandContext.Builder().setArguments("alpha -v ").setExpectedValueFlags(ImmutableSet.of('v')).setAllowHangingFlag(true).build();
+        assertThat(context.getSuggestionContext().forFlag(), is(true));
+        assertThat(context.getSuggestionContext().getFlag(), is('v'));
+
+        context = new CommandContext.Builder().setArguments("alpha ").build();
+        assertThat(context.getSuggestionContext().forHangingValue(), is(true));
+
+        context = new CommandContext.Builder().setArguments("alpha").build();
+        assertThat(context.getSuggestionContext().forLastValue(), is(true));
+    }
+
 }
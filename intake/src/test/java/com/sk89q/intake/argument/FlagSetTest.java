@@ -0,0 +1,104 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class FlagSetTest {
+
+    @Test
+    public void testIndexes() {
+        assertThat(FlagSet.indexOf('a'), is(0));
+        assertThat(FlagSet.indexOf('Z'), is(51));
+        assertThat(FlagSet.indexOf('?'), is(52));
+        assertThat(FlagSet.indexOf('1'), is(-1));
+        for (int i = 0; i <= 52; i++) {
+            assertThat(FlagSet.indexOf(FlagSet.flagAt(i)), is(i));
+        }
+    }
+
+    @Test
+    public void testValues() {
+        FlagSet flags = new FlagSet.Builder().add('f').put('z', "last").put('A', "upper").put('b', "first").build();
+        assertThat(flags.size(), is(4));
+        assertThat(flags.contains('f'), is(true));
+        assertThat(flags.contains('g'), is(false));
+        assertThat(flags.hasValue('f'), is(false));
+        assertThat(flags.getValue('f'), is(nullValue()));
+        assertThat(flags.getValue('b'), equalTo("first"));
+        assertThat(flags.getValue('z'), equalTo("last"));
+        assertThat(flags.getValue('A'), equalTo("upper"));
+        assertThat(flags.asMap(), equalTo((Map<Character, String>) ImmutableMap.of('b', "first", 'f', "true", 'z', "last", 'A', "upper")));
+        assertThat(FlagSet.toSet(flags.getValueMask()), contains('b', 'z', 'A'));
+    }
+
+    @Test
+    public void testCopyOf() {
+        Map<Character, String> map = new HashMap<Character, String>();
+        map.put('x', null);
+        map.put('y', "value");
+        FlagSet flags = FlagSet.copyOf(map);
+        assertThat(flags.contains('x'), is(true));
+        assertThat(flags.getValue('x'), is(nullValue()));
+        assertThat(flags.getValue('y'), equalTo("value"));
+        assertThat(FlagSet.copyOf(ImmutableMap.<Character, String>of()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUnmaskedFlags() {
+        Map<Character, String> map = new HashMap<Character, String>();
+        map.put('-', null);
+        map.put('1', "one");
+        map.put('a', "value");
+        FlagSet flags = FlagSet.copyOf(map);
+        assertThat(flags.size(), is(3));
+        assertThat(flags.getMask(), is(FlagSet.maskOf('a')));
+        assertThat(flags.getUnmaskedFlags(), containsInAnyOrder('-', '1'));
+        assertThat(flags.contains('-'), is(true));
+        assertThat(flags.hasValue('-'), is(false));
+        assertThat(flags.getValue('1'), equalTo("one"));
+        assertThat(flags.contains('2'), is(false));
+        assertThat(flags.asMap(), equalTo((Map<Character, String>) ImmutableMap.of('a', "value", '-', "true", '1', "one")));
+    }
+
+    @Test
+    public void testOfCustomArgs() {
+        CommandArgs args = Arguments.copyOf(ImmutableList.<String>of(), ImmutableMap.of('f', "true", '-', "x"));
+        FlagSet flags = FlagSet.of(args);
+        assertThat(flags.getValue('f'), equalTo("true"));
+        assertThat(flags.getValue('-'), equalTo("x"));
+        assertThat(FlagSet.of(args), sameInstance(flags));
+    }
+
+}
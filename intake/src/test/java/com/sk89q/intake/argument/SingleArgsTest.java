@@ -0,0 +1,55 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Test;
+
+public class SingleArgsTest {
+
+    private final CommandArgs parent = Arguments.copyOf(ImmutableList.of("a", "b"), ImmutableMap.of('f', "value"), new Namespace());
+
+    @Test
+    public void testSingle() throws Exception {
+        CommandArgs args = Arguments.singleOf("42", parent);
+        assertThat(args.size(), is(1));
+        assertThat(args.hasNext(), is(true));
+        assertThat(args.nextInt(), is(42));
+        assertThat(args.hasNext(), is(false));
+        assertThat(args.position(), is(1));
+        assertThat(FlagSet.of(args).getValue('f'), equalTo("value"));
+        assertThat(args.getNamespace(), sameInstance(parent.getNamespace()));
+    }
+
+    @Test(expected = MissingArgumentException.class)
+    public void testEmpty() throws Exception {
+        CommandArgs args = Arguments.singleOf(null, parent);
+        assertThat(args.size(), is(0));
+        args.next();
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.argument;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class TokenizerTest {
+
+    private static List<String> tokenize(String input) {
+        Tokenizer tokenizer = new Tokenizer(input);
+        List<String> tokens = Lists.newArrayList();
+        while (tokenizer.next()) {
+            tokens.add(tokenizer.getValue());
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testSpaces() {
+        assertThat(tokenize("alpha  bravo charlie "), equalTo((List<String>) Lists.newArrayList("alpha", "bravo", "charlie")));
+        assertThat(tokenize("   ").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testQuotes() {
+        assertThat(tokenize("\"alpha  bravo\" 'charlie' delta"), equalTo((List<String>) Lists.newArrayList("alpha  bravo", "charlie", "delta")));
+        assertThat(tokenize("\"it's\" \"\" ''"), equalTo((List<String>) Lists.newArrayList("it's")));
+        assertThat(tokenize("\"alpha bravo"), equalTo((List<String>) Lists.newArrayList("\"alpha", "bravo")));
+    }
+
+    @Test
+    public void testOffsets() {
+        Tokenizer tokenizer = new Tokenizer("cmd \"a b\" c", 4);
+        assertThat(tokenizer.next(), is(true));
+        assertThat(tokenizer.isQuoted(), is(true));
+        assertThat(tokenizer.getTokenStart(), is(4));
+        assertThat(tokenizer.getValueStart(), is(5));
+        assertThat(tokenizer.getValueEnd(), is(8));
+        assertThat(tokenizer.getTokenEnd(), is(9));
+        assertThat(tokenizer.next(), is(true));
+        assertThat(tokenizer.getValue(), equalTo("c"));
+        assertThat(tokenizer.next(), is(false));
+    }
+
+    @Test
+    public void testFlags() {
+        assertThat(Tokenizer.isFlag("-fv?", 0, 4), is(true));
+        assertThat(Tokenizer.isFlag("-", 0, 1), is(false));
+        assertThat(Tokenizer.isFlag("-5", 0, 2), is(false));
+        assertThat(Tokenizer.isFlag("--", 0, 2), is(false));
+    }
+
+    @Test
+    public void testHanging() {
+        assertThat(new Tokenizer("").isHanging(), is(true));
+        assertThat(new Tokenizer("alpha ").isHanging(), is(true));
+        assertThat(new Tokenizer("alpha").isHanging(), is(false));
+    }
+
+}
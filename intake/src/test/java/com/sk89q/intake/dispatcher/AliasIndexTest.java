@@ -0,0 +1,77 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Test;
+
+public class AliasIndexTest {
+
+    private final AliasIndex<Integer> index = AliasIndex.build(ImmutableMap.<String, Integer>builder()
+            .put("set", 1)
+            .put("setHome", 2)
+            .put("sethealth", 3)
+            .put("spawn", 4)
+            .put("s", 5)
+            .build());
+
+    @Test
+    public void testGet() {
+        assertThat(index.get("set"), equalTo(1));
+        assertThat(index.get("SETHOME"), equalTo(2));
+        assertThat(index.get("sethealth"), equalTo(3));
+        assertThat(index.get("s"), equalTo(5));
+        assertThat(index.get("se"), is(nullValue()));
+        assertThat(index.get("seth"), is(nullValue()));
+        assertThat(index.get("sethomes"), is(nullValue()));
+        assertThat(index.get("x"), is(nullValue()));
+        assertThat(index.get(""), is(nullValue()));
+    }
+
+    @Test
+    public void testGetByPrefix() {
+        assertThat(index.getByPrefix(""), contains(5, 1, 3, 2, 4));
+        assertThat(index.getByPrefix("Se"), contains(1, 3, 2));
+        assertThat(index.getByPrefix("setH"), contains(3, 2));
+        assertThat(index.getByPrefix("sethe"), contains(3));
+        assertThat(index.getByPrefix("sp"), contains(4));
+        assertThat(index.getByPrefix("sx").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEmpty() {
+        AliasIndex<Integer> empty = AliasIndex.build(ImmutableMap.<String, Integer>of());
+        assertThat(empty.get(""), is(nullValue()));
+        assertThat(empty.getByPrefix("").isEmpty(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateAlias() {
+        AliasIndex.build(ImmutableMap.of("home", 1, "HOME", 2));
+    }
+
+}
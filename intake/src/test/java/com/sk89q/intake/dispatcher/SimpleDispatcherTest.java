@@ -0,0 +1,285 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.dispatcher;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.Default;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.Require;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.ParametricBuilder;
+import com.sk89q.intake.util.auth.AuthorizationException;
+import com.sk89q.intake.util.auth.Authorizer;
+import com.sk89q.intake.util.auth.PermissionIndex;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+public class SimpleDispatcherTest {
+
+    @Test
+    public void testNestedCall() throws Exception {
+        RecordingCallable leaf = new RecordingCallable();
+        SimpleDispatcher child = new SimpleDispatcher();
+        child.registerCommand(leaf, "leaf", "l");
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(child, "sub");
+
+        root.call("sub L alpha  \"bravo charlie\"", new Namespace(), ImmutableList.of("root"));
+        assertThat(leaf.arguments, equalTo("alpha  \"bravo charlie\""));
+        assertThat(leaf.parents, contains("root", "sub", "L"));
+
+        root.call("sub leaf", new Namespace(), ImmutableList.<String>of());
+        assertThat(leaf.arguments, equalTo(""));
+    }
+
+    @Test
+    public void testDefaultCommand() throws Exception {
+        RecordingCallable fallback = new RecordingCallable();
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(new RecordingCallable(), "other");
+        root.registerCommand(fallback, new DefaultAnnotation(), "fallback");
+
+        root.call("alpha bravo", new Namespace(), ImmutableList.<String>of());
+        assertThat(fallback.arguments, equalTo("alpha bravo"));
+    }
+
+    @Test(expected = SubcommandRequiredException.class)
+    public void testUnknownSubcommand() throws Exception {
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(new RecordingCallable(), "other");
+        root.call("alpha", new Namespace(), ImmutableList.<String>of());
+    }
+
+    @Test
+    public void testCallAsync() throws Exception {
+        RecordingCallable leaf = new RecordingCallable();
+        SimpleDispatcher child = new SimpleDispatcher();
+        child.registerCommand(leaf, "leaf");
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(child, "sub");
+
+        assertThat(root.callAsync("sub leaf alpha", new Namespace(), ImmutableList.<String>of()).get(), is(true));
+        assertThat(leaf.arguments, equalTo("alpha"));
+
+        try {
+            root.callAsync("sub other", new Namespace(), ImmutableList.<String>of()).get();
+            fail("Expected the future to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(SubcommandRequiredException.class));
+        }
+    }
+
+    @Test
+    public void testSuggestions() throws Exception {
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(new RecordingCallable(), "alpha", "beta");
+        root.registerCommand(new RecordingCallable(), "bravo");
+        assertThat(root.getSuggestions("b", new Namespace()), containsInAnyOrder("alpha", "bravo"));
+        assertThat(root.getSuggestions("al", new Namespace()), contains("alpha"));
+        assertThat(root.getSuggestions("c", new Namespace()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testPermissionIndex() throws Exception {
+        RecordingAuthorizer authorizer = new RecordingAuthorizer();
+        SimpleDispatcher child = new SimpleDispatcher();
+        child.registerCommand(new RestrictedCallable(authorizer, "perm.a"), "alpha");
+        child.registerCommand(new RestrictedCallable(authorizer, "perm.a"), "bravo");
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(child, "sub");
+        root.registerCommand(new RestrictedCallable(authorizer, "perm.b"), "charlie");
+
+        assertThat(root.testPermission(new Namespace()), is(false));
+        assertThat(authorizer.tested, contains("perm.a", "perm.b"));
+        assertThat(root.getPermissionIndex().getPermissions(), containsInAnyOrder("perm.a", "perm.b"));
+
+        // Registering below the root has to show up in the root's index
+        child.registerCommand(new RecordingCallable(), "delta");
+        assertThat(root.testPermission(new Namespace()), is(true));
+    }
+
+    @Test
+    public void testPermissionIndexIsPerDispatcher() throws Exception {
+        SimpleDispatcher other = new SimpleDispatcher();
+        other.registerCommand(new RecordingCallable(), "alpha");
+        PermissionIndex index = other.getPermissionIndex();
+
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(new RecordingCallable(), "bravo");
+        assertThat(other.getPermissionIndex(), sameInstance(index));
+    }
+
+    @Test
+    public void testOverriddenPermission() throws Exception {
+        RecordingAuthorizer authorizer = new RecordingAuthorizer();
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(new OverriddenCallable(authorizer, "perm.a"), "alpha");
+
+        // The index inherited from RestrictedCallable would deny access
+        assertThat(root.testPermission(new Namespace()), is(true));
+        assertThat(authorizer.tested.isEmpty(), is(true));
+
+        SimpleDispatcher child = new SimpleDispatcher();
+        child.registerCommand(new RecordingCallable(), "leaf");
+        SimpleDispatcher locked = new LockedDispatcher();
+        locked.registerCommand(child, "sub");
+        root.registerCommand(locked, "locked");
+
+        try {
+            root.call("locked sub leaf", new Namespace(), ImmutableList.<String>of());
+            fail("Expected the locked dispatcher to deny access");
+        } catch (AuthorizationException ignored) {
+        }
+    }
+
+    @Test
+    public void testAuthorizerChange() throws Exception {
+        ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+        SimpleDispatcher root = new SimpleDispatcher();
+        builder.registerMethodsAsCommands(root, new RequiringCommands());
+
+        RecordingAuthorizer authorizer = new RecordingAuthorizer();
+        builder.setAuthorizer(authorizer);
+        assertThat(root.testPermission(new Namespace()), is(false));
+        assertThat(authorizer.tested, contains("perm.a"));
+
+        builder.setAuthorizer(new Authorizer() {
+            @Override
+            public boolean testPermission(Namespace namespace, String permission) {
+                return true;
+            }
+        });
+        assertThat(root.testPermission(new Namespace()), is(true));
+    }
+
+    private static class DefaultAnnotation implements Default {
+        @Override
+        public boolean defaultOnly() {
+            return false;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return Default.class;
+        }
+    }
+
+    private static class RecordingCallable implements CommandCallable {
+        private String arguments;
+        private List<String> parents;
+
+        @Override
+        public boolean call(String arguments, Namespace namespace, List<String> parentCommands) {
+            this.arguments = arguments;
+            this.parents = parentCommands;
+            return true;
+        }
+
+        @Override
+        public Description getDescription() {
+            return new ImmutableDescription.Builder().build();
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public List<String> getSuggestions(String arguments, Namespace locals) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class RestrictedCallable extends RecordingCallable implements PermissionIndex.Indexable {
+        private final Authorizer authorizer;
+        private final String permission;
+
+        private RestrictedCallable(Authorizer authorizer, String permission) {
+            this.authorizer = authorizer;
+            this.permission = permission;
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return authorizer.testPermission(namespace, permission);
+        }
+
+        @Override
+        public PermissionIndex getPermissionIndex() {
+            return PermissionIndex.builder().addPermissions(authorizer, ImmutableList.of(permission)).build();
+        }
+    }
+
+    private static class OverriddenCallable extends RestrictedCallable {
+        private OverriddenCallable(Authorizer authorizer, String permission) {
+            super(authorizer, permission);
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return true;
+        }
+    }
+
+    private static class LockedDispatcher extends SimpleDispatcher {
+        @Override
+        public boolean testPermission(Namespace locals) {
+            return false;
+        }
+    }
+
+    public static class RequiringCommands {
+        @Command(aliases = "alpha", desc = "Requires a permission")
+        @Require("perm.a")
+        public void alpha() {
+        }
+    }
+
+    private static class RecordingAuthorizer implements Authorizer {
+        private final List<String> tested = new ArrayList<String>();
+
+        @Override
+        public boolean testPermission(Namespace namespace, String permission) {
+            tested.add(permission);
+            return false;
+        }
+    }
+
+}
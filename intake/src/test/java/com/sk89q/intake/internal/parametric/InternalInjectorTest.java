@@ -0,0 +1,106 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.internal.parametric;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.parametric.AbstractModule;
+import com.sk89q.intake.parametric.Injector;
+import com.sk89q.intake.parametric.Key;
+import com.sk89q.intake.parametric.annotation.Text;
+import com.sk89q.intake.parametric.provider.PrimitivesModule;
+
+import org.junit.Test;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+public class InternalInjectorTest {
+
+    @SuppressWarnings("unused")
+    private List<String> listField;
+
+    @Test
+    public void testClassifiedBindings() {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        assertThat(injector.getBinding(Key.get(String.class)), is(notNullValue()));
+        assertThat(injector.getBinding(Key.get(String.class, Text.class)), is(notNullValue()));
+        assertThat(injector.getBinding(Key.get(Byte.class)), is(nullValue()));
+    }
+
+    @Test
+    public void testParameterizedKey() throws Exception {
+        final Type type = getClass().getDeclaredField("listField").getGenericType();
+        assertThat(type instanceof ParameterizedType, is(true));
+
+        Injector injector = Intake.createInjector();
+        injector.install(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Key.<List<String>>get(type)).toInstance(ImmutableList.<String>of());
+            }
+        });
+        assertThat(injector.getBinding(Key.get(type)), is(notNullValue()));
+    }
+
+    @Test
+    public void testOwnLongBinding() {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        injector.install(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Long.class).toInstance(42L);
+            }
+        });
+        assertThat(injector.getBinding(Key.get(Long.class)), is(notNullValue()));
+        assertThat(injector.getBinding(Key.get(long.class)), is(nullValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateBinding() {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        injector.install(new PrimitivesModule());
+    }
+
+    @Test
+    public void testFreeze() {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        Injector frozen = Intake.freeze(injector);
+        assertThat(frozen.getBinding(Key.get(String.class, Text.class)), is(notNullValue()));
+
+        try {
+            frozen.install(new PrimitivesModule());
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+}
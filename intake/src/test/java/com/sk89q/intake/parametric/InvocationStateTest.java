@@ -0,0 +1,220 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.SettableFuture;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.InvocationCommandException;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.SimpleDispatcher;
+import com.sk89q.intake.parametric.handler.InvokeHandler;
+import com.sk89q.intake.parametric.handler.InvokeListener;
+import com.sk89q.intake.parametric.handler.SharedInvokeListener;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+public class InvocationStateTest {
+
+    private final ParametricBuilder builder = new ParametricBuilder(Intake.createInjector());
+    private final SimpleDispatcher dispatcher = new SimpleDispatcher();
+    private final List<String> log = new ArrayList<String>();
+
+    private void register() throws Exception {
+        builder.setPoolInvocationState(true);
+        builder.registerMethodsAsCommands(dispatcher, new Commands());
+    }
+
+    private void call(String command) throws Exception {
+        dispatcher.call(command, new Namespace(), ImmutableList.<String>of());
+    }
+
+    @Test
+    public void testNestedCallOnSameThread() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        builder.addInvokeListener(listener);
+        register();
+
+        call("outer");
+
+        assertThat(log, contains("outer:busy", "inner", "outer"));
+        assertThat(listener.handlers.size(), is(2));
+        for (RecordingHandler handler : listener.handlers) {
+            assertThat(handler.events, contains("preProcess", "preInvoke", "postInvoke"));
+        }
+
+        InvocationState state = builder.acquireInvocationState();
+        assertThat(state, notNullValue());
+        assertThat(state.handlers.isEmpty(), is(true));
+        builder.releaseInvocationState(state, true);
+    }
+
+    @Test
+    public void testHandlerListReusedAcrossCalls() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        SharedListener shared = new SharedListener();
+        builder.addInvokeListener(listener);
+        builder.addInvokeListener(shared);
+        register();
+
+        InvocationState state = builder.acquireInvocationState();
+        builder.releaseInvocationState(state, true);
+
+        call("inner");
+        call("inner");
+
+        assertThat(log, contains("inner", "inner"));
+        assertThat(listener.handlers.size(), is(2));
+        assertThat(listener.handlers.get(0), not(sameInstance(listener.handlers.get(1))));
+        for (RecordingHandler handler : listener.handlers) {
+            assertThat(handler.events, contains("preProcess", "preInvoke", "postInvoke"));
+        }
+        assertThat(shared.created, is(1));
+        assertThat(shared.events, contains("preProcess", "preInvoke", "postInvoke", "preProcess", "preInvoke", "postInvoke"));
+
+        InvocationState reused = builder.acquireInvocationState();
+        assertThat(reused, sameInstance(state));
+        assertThat(reused.handlers.isEmpty(), is(true));
+        builder.releaseInvocationState(reused, true);
+    }
+
+    @Test
+    public void testInterruptedCallDoesNotReuseState() throws Exception {
+        PendingExecutor executor = new PendingExecutor();
+        builder.setCommandExecutor(executor);
+        register();
+
+        InvocationState state = builder.acquireInvocationState();
+        builder.releaseInvocationState(state, true);
+
+        Thread.currentThread().interrupt();
+        try {
+            call("inner");
+            fail();
+        } catch (InvocationCommandException e) {
+            assertThat(e.getCause(), instanceOf(InterruptedException.class));
+        } finally {
+            Thread.interrupted();
+        }
+
+        InvocationState fresh = builder.acquireInvocationState();
+        assertThat(fresh, not(sameInstance(state)));
+        builder.releaseInvocationState(fresh, true);
+
+        // The submitted task must still be intact when the executor gets to run it
+        assertThat(log.isEmpty(), is(true));
+        executor.task.call();
+        assertThat(log, contains("inner"));
+    }
+
+    public class Commands {
+        @Command(aliases = "outer", desc = "Calls another command")
+        public void outer() throws Exception {
+            InvocationState state = builder.acquireInvocationState();
+            log.add(state == null ? "outer:busy" : "outer:free");
+            call("inner");
+            log.add("outer");
+        }
+
+        @Command(aliases = "inner", desc = "Does nothing")
+        public void inner() {
+            log.add("inner");
+        }
+    }
+
+    private static class RecordingHandler implements InvokeHandler {
+        final List<String> events = new ArrayList<String>();
+
+        @Override
+        public boolean preProcess(List<? extends Annotation> annotations, ArgumentParser parser, CommandArgs commandArgs) {
+            events.add("preProcess");
+            return true;
+        }
+
+        @Override
+        public boolean preInvoke(List<? extends Annotation> annotations, ArgumentParser parser, Object[] args, CommandArgs commandArgs) {
+            events.add("preInvoke");
+            return true;
+        }
+
+        @Override
+        public void postInvoke(List<? extends Annotation> annotations, ArgumentParser parser, Object[] args, CommandArgs commandArgs) {
+            events.add("postInvoke");
+        }
+    }
+
+    private static class RecordingListener implements InvokeListener {
+        private final List<RecordingHandler> handlers = new ArrayList<RecordingHandler>();
+
+        @Override
+        public InvokeHandler createInvokeHandler() {
+            RecordingHandler handler = new RecordingHandler();
+            handlers.add(handler);
+            return handler;
+        }
+
+        @Override
+        public void updateDescription(Set<Annotation> annotations, ArgumentParser parser, ImmutableDescription.Builder descriptionBuilder) {
+        }
+    }
+
+    private static class SharedListener extends RecordingHandler implements SharedInvokeListener {
+        private int created;
+
+        @Override
+        public InvokeHandler createInvokeHandler() {
+            created++;
+            return this;
+        }
+
+        @Override
+        public void updateDescription(Set<Annotation> annotations, ArgumentParser parser, ImmutableDescription.Builder descriptionBuilder) {
+        }
+    }
+
+    private static class PendingExecutor implements CommandExecutor {
+        private Callable<?> task;
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task, CommandArgs args) {
+            this.task = task;
+            return SettableFuture.create();
+        }
+    }
+
+}
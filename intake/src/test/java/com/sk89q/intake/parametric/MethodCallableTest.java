@@ -0,0 +1,387 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.sk89q.intake.Command;
+import com.sk89q.intake.Intake;
+import com.sk89q.intake.InvalidUsageException;
+import com.sk89q.intake.InvocationCommandException;
+import com.sk89q.intake.argument.ArgumentException;
+import com.sk89q.intake.argument.ArgumentParseException;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.argument.UnusedArgumentException;
+import com.sk89q.intake.dispatcher.SimpleDispatcher;
+import com.sk89q.intake.parametric.annotation.OptArg;
+import com.sk89q.intake.parametric.annotation.Range;
+import com.sk89q.intake.parametric.annotation.Switch;
+import com.sk89q.intake.parametric.annotation.Text;
+import com.sk89q.intake.parametric.annotation.Validate;
+import com.sk89q.intake.parametric.handler.ExceptionContext;
+import com.sk89q.intake.parametric.handler.ExceptionConverter;
+import com.sk89q.intake.parametric.provider.LongModule;
+import com.sk89q.intake.parametric.provider.PrimitivesModule;
+import com.sk89q.intake.parametric.provider.exception.OverRangeException;
+import com.sk89q.intake.parametric.provider.exception.StringFormatException;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MethodCallableTest {
+
+    @Test
+    public void testPrimitivesWithMethodHandles() throws Exception {
+        testPrimitives(true);
+    }
+
+    @Test
+    public void testPrimitivesWithReflection() throws Exception {
+        testPrimitives(false);
+    }
+
+    private void testPrimitives(boolean useMethodHandles) throws Exception {
+        PrimitiveCommands commands = new PrimitiveCommands();
+        SimpleDispatcher dispatcher = createDispatcher(commands, useMethodHandles);
+
+        dispatcher.call("add 3 5000000000 1.5 -f", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("3 5000000000 1.5 true 0 0"));
+
+        dispatcher.call("add 10 -1 0 7 2", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("10 -1 0.0 false 7 2"));
+    }
+
+    @Test
+    public void testMissingOptionalPrimitiveDefaultsToZero() throws Exception {
+        PrimitiveCommands commands = new PrimitiveCommands();
+        SimpleDispatcher dispatcher = createDispatcher(commands, true);
+
+        dispatcher.call("shorts", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("0 4"));
+    }
+
+    @Test
+    public void testTextHasNoTrailingSpace() throws Exception {
+        PrimitiveCommands commands = new PrimitiveCommands();
+        SimpleDispatcher dispatcher = createDispatcher(commands, true);
+
+        dispatcher.call("text a b", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("a b"));
+
+        dispatcher.call("text a", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("a"));
+    }
+
+    @Test
+    public void testOptionalProviderIsCalledWithoutInput() throws Exception {
+        Injector injector = createInjector();
+        injector.install(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Target.class).toProvider(new TargetProvider());
+            }
+        });
+        ParametricBuilder builder = new ParametricBuilder(injector);
+        TargetCommands commands = new TargetCommands();
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        builder.registerMethodsAsCommands(dispatcher, commands);
+
+        dispatcher.call("target bob", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("bob"));
+
+        dispatcher.call("target", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("self"));
+    }
+
+    @Test
+    public void testRangeOnPrimitive() throws Exception {
+        ArgumentParser.Builder builder = new ArgumentParser.Builder(createInjector());
+        builder.addParameter(int.class, Arrays.asList(PrimitiveCommands.class.getMethod("range", int.class).getParameterAnnotations()[0]));
+        ArgumentParser parser = builder.build();
+
+        ArgumentFrame frame = parser.parseFrame(Arguments.of("5"), false, Collections.<Character>emptySet());
+        assertThat(frame.getInt(0), is(5));
+        assertThat(frame.toArray()[0], is((Object) 5));
+
+        try {
+            parser.parseArguments(Arguments.of("50"));
+            fail();
+        } catch (ArgumentParseException e) {
+            assertThat(e.getCause(), instanceOf(OverRangeException.class));
+        }
+    }
+
+    @Test
+    public void testValidate() throws Exception {
+        PrimitiveCommands commands = new PrimitiveCommands();
+        SimpleDispatcher dispatcher = createDispatcher(commands, true);
+
+        dispatcher.call("name abc", new Namespace(), ImmutableList.<String>of());
+        assertThat(commands.result.get(), is("abc"));
+
+        try {
+            dispatcher.call("name ab1", new Namespace(), ImmutableList.<String>of());
+            fail();
+        } catch (InvalidUsageException e) {
+            assertThat(e.getCause(), instanceOf(ArgumentParseException.class));
+            assertThat(e.getCause().getCause(), instanceOf(StringFormatException.class));
+        }
+    }
+
+    @Test(expected = IllegalParameterException.class)
+    public void testInvalidDefaultValue() throws Exception {
+        new ParametricBuilder(createInjector()).registerMethodsAsCommands(new SimpleDispatcher(), new InvalidDefaultCommands());
+    }
+
+    @Test(expected = IllegalParameterException.class)
+    public void testInvalidValidateRegex() throws Exception {
+        new ParametricBuilder(createInjector()).registerMethodsAsCommands(new SimpleDispatcher(), new InvalidCommands());
+    }
+
+    @Test
+    public void testUnusedFlags() throws Exception {
+        ArgumentParser parser = new ArgumentParser.Builder(createInjector()).build();
+        Map<Character, String> flags = ImmutableMap.of('a', "true", 'z', "true");
+        parser.parseArguments(Arguments.copyOf(ImmutableList.<String>of(), flags), false, ImmutableSet.of('a', 'z'));
+
+        try {
+            parser.parseArguments(Arguments.copyOf(ImmutableList.<String>of(), flags), false, ImmutableSet.of('a'));
+            fail();
+        } catch (UnusedArgumentException e) {
+            assertThat(e.getUnconsumed(), is("-z"));
+        }
+    }
+
+    @Test
+    public void testUnusedUnmaskedFlags() throws Exception {
+        ArgumentParser parser = new ArgumentParser.Builder(createInjector()).build();
+        Map<Character, String> flags = ImmutableMap.of('a', "true", '1', "true");
+        parser.parseArguments(Arguments.copyOf(ImmutableList.<String>of(), flags), false, ImmutableSet.of('a', '1'));
+
+        try {
+            parser.parseArguments(Arguments.copyOf(ImmutableList.<String>of(), flags), false, ImmutableSet.of('a'));
+            fail();
+        } catch (UnusedArgumentException e) {
+            assertThat(e.getUnconsumed(), is("-1"));
+        }
+    }
+
+    @Test
+    public void testDirectExecutorPassesExceptionsUnchanged() throws Exception {
+        ParametricBuilder builder = new ParametricBuilder(createInjector());
+        RecordingConverter converter = new RecordingConverter();
+        builder.addExceptionConverter(converter);
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        builder.registerMethodsAsCommands(dispatcher, new FailingCommands());
+
+        try {
+            dispatcher.call("fail", new Namespace(), ImmutableList.<String>of());
+            fail();
+        } catch (InvocationCommandException e) {
+            assertThat(e.getCause(), sameInstance((Throwable) FailingCommands.FAILURE));
+        }
+        assertThat(converter.converted, contains((Throwable) FailingCommands.FAILURE));
+
+        ListenableFuture<Boolean> future = dispatcher.callAsync("fail", new Namespace(), ImmutableList.<String>of());
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(InvocationCommandException.class));
+            assertThat(e.getCause().getCause(), sameInstance((Throwable) FailingCommands.FAILURE));
+        }
+        assertThat(converter.converted, contains((Throwable) FailingCommands.FAILURE, FailingCommands.FAILURE));
+    }
+
+    @Test
+    public void testPlainFutureIsWaitedForByFutureListenerExecutor() throws Exception {
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger listened = new AtomicInteger();
+        try {
+            ParametricBuilder builder = new ParametricBuilder(createInjector());
+            builder.setCommandExecutor(new CommandExecutor() {
+                @Override
+                public <T> Future<T> submit(final Callable<T> task, CommandArgs args) {
+                    return pool.submit(new Callable<T>() {
+                        @Override
+                        public T call() throws Exception {
+                            started.await();
+                            return task.call();
+                        }
+                    });
+                }
+            });
+            builder.setFutureListenerExecutor(new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    listened.incrementAndGet();
+                    started.countDown();
+                    command.run();
+                }
+            });
+            PrimitiveCommands commands = new PrimitiveCommands();
+            SimpleDispatcher dispatcher = new SimpleDispatcher();
+            builder.registerMethodsAsCommands(dispatcher, commands);
+
+            ListenableFuture<Boolean> future = dispatcher.callAsync("range 7", new Namespace(), ImmutableList.<String>of());
+            assertThat(future.get(5, TimeUnit.SECONDS), is(true));
+            assertThat(commands.result.get(), is("7"));
+            assertThat(listened.get(), is(1));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Injector createInjector() {
+        Injector injector = Intake.createInjector();
+        injector.install(new PrimitivesModule());
+        injector.install(new LongModule());
+        return injector;
+    }
+
+    private static SimpleDispatcher createDispatcher(Object object, boolean useMethodHandles) throws Exception {
+        ParametricBuilder builder = new ParametricBuilder(createInjector());
+        builder.setUseMethodHandles(useMethodHandles);
+        SimpleDispatcher dispatcher = new SimpleDispatcher();
+        builder.registerMethodsAsCommands(dispatcher, object);
+        return dispatcher;
+    }
+
+    public static class PrimitiveCommands {
+        private final AtomicReference<String> result = new AtomicReference<String>();
+
+        @Command(aliases = "add", desc = "Takes primitives")
+        public void add(int a, long b, double c, @Switch('f') boolean d, @OptArg int e, @OptArg Integer f) {
+            result.set(a + " " + b + " " + c + " " + d + " " + e + " " + (f != null ? f : 0));
+        }
+
+        @Command(aliases = "shorts", desc = "Takes optional shorts")
+        public void shorts(@OptArg short a, @OptArg("4") short b) {
+            result.set(a + " " + b);
+        }
+
+        @Command(aliases = "name", desc = "Takes a validated string")
+        public void name(@Validate(regex = "[a-z]+") String a) {
+            result.set(a);
+        }
+
+        @Command(aliases = "range", desc = "Takes a ranged number")
+        public void range(@Range(min = 0, max = 10) int a) {
+            result.set(String.valueOf(a));
+        }
+
+        @Command(aliases = "text", desc = "Takes the remaining text")
+        public void text(@Text String a) {
+            result.set(a);
+        }
+    }
+
+    public static class TargetCommands {
+        private final AtomicReference<String> result = new AtomicReference<String>();
+
+        @Command(aliases = "target", desc = "Takes a target that defaults to the sender")
+        public void target(@OptArg Target a) {
+            result.set(a != null ? a.name : "null");
+        }
+    }
+
+    public static class Target {
+        private final String name;
+
+        private Target(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class TargetProvider implements Provider<Target> {
+        @Override
+        public boolean isProvided() {
+            return false;
+        }
+
+        @Override
+        public Target get(CommandArgs arguments, List<? extends Annotation> modifiers) throws ArgumentException {
+            return new Target(arguments.hasNext() ? arguments.next() : "self");
+        }
+
+        @Override
+        public List<String> getSuggestions(String prefix, Namespace locals) {
+            return Collections.emptyList();
+        }
+    }
+
+    public static class FailingCommands {
+        private static final IllegalStateException FAILURE = new IllegalStateException("failed");
+
+        @Command(aliases = "fail", desc = "Always fails")
+        public void fail() {
+            throw FAILURE;
+        }
+    }
+
+    private static class RecordingConverter implements ExceptionConverter {
+        private final List<Throwable> converted = new ArrayList<Throwable>();
+
+        @Override
+        public void convert(Throwable t, ExceptionContext context) {
+            converted.add(t);
+        }
+    }
+
+    public static class InvalidCommands {
+        @Command(aliases = "name", desc = "Takes a string with an invalid pattern")
+        public void name(@Validate(regex = "[a-z") String a) {
+        }
+    }
+
+    public static class InvalidDefaultCommands {
+        @Command(aliases = "range", desc = "Takes a number with a default that is out of range")
+        public void range(@OptArg("20") @Range(min = 0, max = 10) int a) {
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.CommandArgs;
+import com.sk89q.intake.argument.Namespace;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class SerialCommandExecutorTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static CommandArgs argsFor(String subject) {
+        Namespace namespace = new Namespace();
+        namespace.put("subject", subject);
+        return Arguments.copyOf(ImmutableList.<String>of(), ImmutableMap.<Character, String>of(), namespace);
+    }
+
+    private static Callable<Object> await(final CountDownLatch latch, final List<Integer> log, final int id) {
+        return new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                latch.await(5, TimeUnit.SECONDS);
+                log.add(id);
+                return null;
+            }
+        };
+    }
+
+    @Test
+    public void testOrderPerSubject() throws Exception {
+        SerialCommandExecutor executor = new SerialCommandExecutor.Builder().setExecutor(pool).setSubjectKey("subject").build();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Integer> log = new CopyOnWriteArrayList<Integer>();
+
+        Future<?> last = null;
+        for (int i = 0; i < 20; i++) {
+            last = executor.submit(await(latch, log, i), argsFor("alice"));
+        }
+        assertThat(executor.getActiveSubjectCount(), is(1));
+        assertThat(executor.getPendingCount(), is(20));
+
+        latch.countDown();
+        last.get(5, TimeUnit.SECONDS);
+
+        Integer[] expected = new Integer[20];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i;
+        }
+        assertThat(log, contains(expected));
+
+        // The counters are updated after the future of a command completes
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(executor.getCompletedCount(), is(20L));
+        assertThat(executor.getPendingCount(), is(0));
+        assertThat(executor.getActiveSubjectCount(), is(0));
+    }
+
+    @Test
+    public void testLimits() throws Exception {
+        SerialCommandExecutor executor = new SerialCommandExecutor.Builder()
+                .setExecutor(pool)
+                .setSubjectKey("subject")
+                .setMaxPendingPerSubject(2)
+                .setMaxPending(3)
+                .build();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Integer> log = new CopyOnWriteArrayList<Integer>();
+
+        executor.submit(await(latch, log, 0), argsFor("alice"));
+        executor.submit(await(latch, log, 1), argsFor("alice"));
+        try {
+            executor.submit(await(latch, log, 2), argsFor("alice"));
+            fail("expected rejection");
+        } catch (RejectedExecutionException ignored) {
+        }
+        executor.submit(await(latch, log, 3), argsFor("bob"));
+        try {
+            executor.submit(await(latch, log, 4), argsFor("carol"));
+            fail("expected rejection");
+        } catch (RejectedExecutionException ignored) {
+        }
+
+        assertThat(executor.getSubmittedCount(), is(3L));
+        assertThat(executor.getRejectedCount(), is(2L));
+        latch.countDown();
+    }
+
+    @Test
+    public void testSubjectsRunInParallel() throws Exception {
+        SerialCommandExecutor executor = new SerialCommandExecutor.Builder().setExecutor(pool).setSubjectKey("subject").build();
+        final CountDownLatch running = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        Callable<Object> task = new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                running.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }
+        };
+
+        Future<?> alice = executor.submit(task, argsFor("alice"));
+        Future<?> bob = executor.submit(task, argsFor("bob"));
+
+        // Both commands have to be running at the same time to count the latch down
+        assertThat(running.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(executor.getActiveSubjectCount(), is(2));
+
+        release.countDown();
+        alice.get(5, TimeUnit.SECONDS);
+        bob.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testNestedCommandForSameSubject() throws Exception {
+        final SerialCommandExecutor executor = new SerialCommandExecutor.Builder().setExecutor(pool).setSubjectKey("subject").build();
+        final List<Integer> log = new CopyOnWriteArrayList<Integer>();
+
+        Future<?> outer = executor.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                log.add(0);
+                // Like a command that calls another command for its own sender and waits for it
+                Future<?> nested = executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        log.add(1);
+                        return null;
+                    }
+                }, argsFor("alice"));
+                nested.get(5, TimeUnit.SECONDS);
+                log.add(2);
+                return null;
+            }
+        }, argsFor("alice"));
+
+        outer.get(5, TimeUnit.SECONDS);
+        assertThat(log, contains(0, 1, 2));
+        assertThat(executor.getSubmittedCount(), is(2L));
+    }
+
+}
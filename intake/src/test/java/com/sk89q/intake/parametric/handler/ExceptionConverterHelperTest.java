@@ -0,0 +1,100 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.handler;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandException;
+import com.sk89q.intake.InvocationCommandException;
+import com.sk89q.intake.dispatcher.SimpleDispatcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExceptionConverterHelperTest {
+
+    private final ExceptionContext context = new ExceptionContext.Builder()
+            .setCommand(new SimpleDispatcher())
+            .setAliasStack(ImmutableList.<String>of())
+            .build();
+
+    @Test
+    public void testMostSpecificFirst() throws Exception {
+        RecordingConverter converter = new RecordingConverter();
+        converter.convert((Throwable) new NumberFormatException(), context);
+        assertThat(converter.called, contains("IllegalArgumentException", "RuntimeException", "Exception"));
+
+        converter.called.clear();
+        converter.convert((Throwable) new IllegalStateException(), context);
+        assertThat(converter.called, contains("RuntimeException", "Exception"));
+    }
+
+    @Test
+    public void testConverted() throws Exception {
+        RecordingConverter converter = new RecordingConverter();
+        try {
+            converter.convert((Throwable) new InterruptedException(), context);
+            fail("Expected CommandException");
+        } catch (CommandException e) {
+            assertThat(e.getMessage(), equalTo("interrupted"));
+        }
+    }
+
+    @Test(expected = InvocationCommandException.class)
+    public void testHandlerFailure() throws Exception {
+        new RecordingConverter().convert((Throwable) new UnsupportedOperationException(), context);
+    }
+
+    private static class RecordingConverter extends ExceptionConverterHelper {
+        private final List<String> called = new ArrayList<String>();
+
+        @ExceptionMatch
+        public void convert(Exception e, ExceptionContext context) {
+            called.add("Exception");
+        }
+
+        @ExceptionMatch
+        public void convert(RuntimeException e) {
+            called.add("RuntimeException");
+        }
+
+        @ExceptionMatch
+        public void convert(IllegalArgumentException e, ExceptionContext context) {
+            called.add("IllegalArgumentException");
+        }
+
+        @ExceptionMatch
+        public void convert(InterruptedException e, ExceptionContext context) throws CommandException {
+            throw new CommandException("interrupted");
+        }
+
+        @ExceptionMatch
+        public void convert(UnsupportedOperationException e, ExceptionContext context) {
+            throw new IllegalStateException("broken handler");
+        }
+    }
+
+}
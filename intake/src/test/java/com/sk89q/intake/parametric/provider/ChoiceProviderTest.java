@@ -0,0 +1,77 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.parametric.provider;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.parametric.provider.exception.NoMatchInChoicesException;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ChoiceProviderTest {
+
+    private final ChoiceProvider<Integer> provider = new ChoiceProvider<Integer>("numbers", 2);
+
+    @Before
+    public void setUp() {
+        provider.put("One", 1);
+        provider.put("Two", 2);
+        provider.put("Three", 3);
+        provider.put("Thirteen", 13);
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        assertThat(provider.get(Arguments.of("one"), ImmutableList.<Annotation>of()), is(1));
+        assertThat(provider.get(Arguments.of("THREE"), ImmutableList.<Annotation>of()), is(3));
+    }
+
+    @Test(expected = NoMatchInChoicesException.class)
+    public void testGetMissing() throws Exception {
+        provider.get(Arguments.of("four"), ImmutableList.<Annotation>of());
+    }
+
+    @Test
+    public void testPutAndRemove() throws Exception {
+        assertThat(provider.put("ONE", 100), is(1));
+        assertThat(provider.getChoice("one"), is(100));
+        assertThat(provider.remove("One"), is(100));
+        assertThat(provider.getChoice("one"), nullValue());
+        assertThat(provider.size(), is(3));
+    }
+
+    @Test
+    public void testGetSuggestions() throws Exception {
+        assertThat(provider.getSuggestions("thi", new Namespace()), contains("Thirteen"));
+        assertThat(provider.getSuggestions("T", new Namespace()), contains("Thirteen", "Three"));
+        assertThat(provider.getSuggestions("", new Namespace()), contains("One", "Thirteen"));
+        assertThat(provider.getSuggestions("x", new Namespace()), Matchers.<String>empty());
+    }
+
+}
@@ -22,6 +22,7 @@ package com.sk89q.intake.parametric.provider;
 import com.google.common.collect.ImmutableList;
 import com.sk89q.intake.argument.ArgumentParseException;
 import com.sk89q.intake.argument.Arguments;
+import com.sk89q.intake.argument.Namespace;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
@@ -49,13 +50,13 @@ public class EnumProviderTest {
 
     @Test
     public void testGetSuggestions() throws Exception {
-        assertThat(provider.getSuggestions(""), containsInAnyOrder("small", "medium", "large", "very_large"));
-        assertThat(provider.getSuggestions("s"), containsInAnyOrder("small"));
-        assertThat(provider.getSuggestions("la"), containsInAnyOrder("large"));
-        assertThat(provider.getSuggestions("very"), containsInAnyOrder("very_large"));
-        assertThat(provider.getSuggestions("verylarg"), containsInAnyOrder("very_large"));
-        assertThat(provider.getSuggestions("very_"), containsInAnyOrder("very_large"));
-        assertThat(provider.getSuggestions("tiny"), Matchers.<String>empty());
+        assertThat(provider.getSuggestions("", new Namespace()), containsInAnyOrder("small", "medium", "large", "very_large"));
+        assertThat(provider.getSuggestions("s", new Namespace()), containsInAnyOrder("small"));
+        assertThat(provider.getSuggestions("la", new Namespace()), containsInAnyOrder("large"));
+        assertThat(provider.getSuggestions("very", new Namespace()), containsInAnyOrder("very_large"));
+        assertThat(provider.getSuggestions("verylarg", new Namespace()), containsInAnyOrder("very_large"));
+        assertThat(provider.getSuggestions("very_", new Namespace()), containsInAnyOrder("very_large"));
+        assertThat(provider.getSuggestions("tiny", new Namespace()), Matchers.<String>empty());
     }
 
     enum Size {
@@ -0,0 +1,138 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.CommandCallable;
+import com.sk89q.intake.Description;
+import com.sk89q.intake.ImmutableDescription;
+import com.sk89q.intake.ImmutableParameter;
+import com.sk89q.intake.OptionType;
+import com.sk89q.intake.Parameter;
+import com.sk89q.intake.argument.Namespace;
+import com.sk89q.intake.dispatcher.SimpleDispatcher;
+import com.sk89q.intake.util.i18n.LocalizedResourceProvider;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class HelpRendererTest {
+
+    @Test
+    public void testRender() throws Exception {
+        CountingResourceProvider resources = new CountingResourceProvider();
+        SimpleDispatcher child = new SimpleDispatcher();
+        child.registerCommand(new DescribedCallable(describe("desc.info", resources, "body")), "info");
+        child.registerCommand(new DescribedCallable(describe("desc.delete", resources, "body")), "delete");
+        SimpleDispatcher root = new SimpleDispatcher();
+        root.registerCommand(child, "body");
+        root.registerCommand(new DescribedCallable(describe("desc.list", resources)), "list");
+
+        StringBuilder out = new StringBuilder();
+        new HelpRenderer("/", null).render(root, out);
+        assertThat(out.toString(), equalTo(
+                "/body delete <body> - en:desc.delete\n"
+                        + "/body info <body> - en:desc.info\n"
+                        + "/list - en:desc.list\n"));
+
+        out.setLength(0);
+        new HelpRenderer("/", Locale.GERMAN).render(root, ImmutableList.of("root"), new Namespace(), out);
+        assertThat(out.toString(), equalTo(
+                "/root body delete <body> - de:desc.delete\n"
+                        + "/root body info <body> - de:desc.info\n"
+                        + "/root list - de:desc.list\n"));
+
+        // Resolved once per description and locale
+        new HelpRenderer("/", null).render(root, new StringBuilder());
+        assertThat(resources.calls, is(6));
+    }
+
+    private static ImmutableDescription describe(String shortDescription, LocalizedResourceProvider resources,
+                                                 String... parameterNames) {
+        ImmutableList.Builder<Parameter> parameters = ImmutableList.builder();
+        for (String name : parameterNames) {
+            parameters.add(new ImmutableParameter.Builder()
+                    .setName("<" + name + ">")
+                    .setOptionType(OptionType.positional())
+                    .build());
+        }
+        return new ImmutableDescription.Builder()
+                .setParameters(parameters.build())
+                .setShortDescription(shortDescription)
+                .setResourceProvider(resources)
+                .build();
+    }
+
+    private static class CountingResourceProvider implements LocalizedResourceProvider {
+        private int calls;
+
+        @Override
+        public Locale getLocale() {
+            return Locale.ENGLISH;
+        }
+
+        @Override
+        public String getString(String key, Locale locale) {
+            calls++;
+            return locale.getLanguage() + ":" + key;
+        }
+
+        @Override
+        public String getString(String key) {
+            return getString(key, getLocale());
+        }
+    }
+
+    private static class DescribedCallable implements CommandCallable {
+        private final Description description;
+
+        private DescribedCallable(Description description) {
+            this.description = description;
+        }
+
+        @Override
+        public boolean call(String arguments, Namespace namespace, List<String> parentCommands) {
+            return true;
+        }
+
+        @Override
+        public Description getDescription() {
+            return description;
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public List<String> getSuggestions(String arguments, Namespace locals) {
+            return Collections.emptyList();
+        }
+    }
+
+}
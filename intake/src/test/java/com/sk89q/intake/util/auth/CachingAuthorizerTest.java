@@ -0,0 +1,126 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.auth;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.sk89q.intake.argument.Namespace;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class CachingAuthorizerTest {
+
+    @Test
+    public void testNamespaceCache() throws Exception {
+        RecordingAuthorizer backend = new RecordingAuthorizer("perm.a");
+        CachingAuthorizer authorizer = new CachingAuthorizer(backend);
+        Namespace namespace = new Namespace();
+
+        assertThat(authorizer.testPermission(namespace, "perm.a"), is(true));
+        assertThat(authorizer.testPermission(namespace, "perm.a"), is(true));
+        assertThat(authorizer.testPermission(namespace, "perm.b"), is(false));
+        assertThat(backend.tested, contains("perm.a", "perm.b"));
+
+        assertThat(authorizer.testPermission(new Namespace(), "perm.a"), is(true));
+        assertThat(backend.tested, contains("perm.a", "perm.b", "perm.a"));
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        RecordingAuthorizer backend = new RecordingAuthorizer("perm.a", "perm.c");
+        CachingAuthorizer authorizer = new CachingAuthorizer(backend);
+        Namespace namespace = new Namespace();
+
+        assertThat(authorizer.testPermission(namespace, "perm.b"), is(false));
+
+        BitSet granted = authorizer.testPermissions(namespace, ImmutableList.of("perm.a", "perm.b", "perm.c"));
+        assertThat(granted.get(0), is(true));
+        assertThat(granted.get(1), is(false));
+        assertThat(granted.get(2), is(true));
+        assertThat(backend.batches, is(1));
+        assertThat(backend.tested, contains("perm.b", "perm.a", "perm.c"));
+    }
+
+    @Test
+    public void testSubjectCache() throws Exception {
+        RecordingAuthorizer backend = new RecordingAuthorizer("perm.a");
+        CachingAuthorizer authorizer = new CachingAuthorizer(backend, new Function<Namespace, Object>() {
+            @Override
+            public Object apply(Namespace input) {
+                return input.get("subject");
+            }
+        }, 1, TimeUnit.MINUTES);
+
+        assertThat(authorizer.testPermission(withSubject("alice"), "perm.a"), is(true));
+        assertThat(authorizer.testPermission(withSubject("alice"), "perm.a"), is(true));
+        assertThat(authorizer.testPermission(withSubject("bob"), "perm.a"), is(true));
+        assertThat(backend.tested, contains("perm.a", "perm.a"));
+
+        authorizer.invalidate("alice");
+        assertThat(authorizer.testPermission(withSubject("alice"), "perm.a"), is(true));
+        assertThat(authorizer.testPermission(withSubject("bob"), "perm.a"), is(true));
+        assertThat(backend.tested, contains("perm.a", "perm.a", "perm.a"));
+    }
+
+    private static Namespace withSubject(String subject) {
+        Namespace namespace = new Namespace();
+        namespace.put("subject", subject);
+        return namespace;
+    }
+
+    private static class RecordingAuthorizer implements BatchAuthorizer {
+        private final List<String> granted;
+        private final List<String> tested = new ArrayList<String>();
+        private int batches;
+
+        private RecordingAuthorizer(String... granted) {
+            this.granted = ImmutableList.copyOf(granted);
+        }
+
+        @Override
+        public boolean testPermission(Namespace namespace, String permission) {
+            tested.add(permission);
+            return granted.contains(permission);
+        }
+
+        @Override
+        public BitSet testPermissions(Namespace namespace, Collection<String> permissions) {
+            batches++;
+            BitSet result = new BitSet();
+            int i = 0;
+            for (String permission : permissions) {
+                if (testPermission(namespace, permission)) {
+                    result.set(i);
+                }
+                i++;
+            }
+            return result;
+        }
+    }
+
+}
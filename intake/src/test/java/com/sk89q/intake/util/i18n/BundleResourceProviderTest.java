@@ -0,0 +1,103 @@
+/*
+ * Intake, a command processing library
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) Intake team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.intake.util.i18n;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.sk89q.intake.argument.Namespace;
+
+import org.junit.Test;
+
+import java.util.ListResourceBundle;
+import java.util.Locale;
+
+public class BundleResourceProviderTest {
+
+    private final BundleResourceProvider resources = new BundleResourceProvider(
+            BundleResourceProviderTest.class.getName() + "$Messages", Locale.ENGLISH,
+            BundleResourceProviderTest.class.getClassLoader());
+
+    @Test
+    public void testGetString() throws Exception {
+        assertThat(resources.getString("greeting"), equalTo("Hello"));
+        assertThat(resources.getString("greeting", Locale.GERMAN), equalTo("Hallo"));
+        assertThat(resources.getString("farewell", Locale.GERMAN), equalTo("Goodbye"));
+        assertThat(resources.getString("unknown"), equalTo("${unknown}"));
+    }
+
+    @Test
+    public void testNamespaceLocale() throws Exception {
+        Namespace namespace = new Namespace();
+        assertThat(resources.getString(namespace, "greeting"), equalTo("Hello"));
+
+        namespace.put(Locale.class, Locale.GERMAN);
+        assertThat(resources.getString(namespace, "greeting"), equalTo("Hallo"));
+        assertThat(resources.format(namespace, "count", 1234), equalTo("1.234 Befehle"));
+    }
+
+    @Test
+    public void testFormat() throws Exception {
+        assertThat(resources.format("count", 1234), equalTo("1,234 commands"));
+        assertThat(resources.format("count", 5), equalTo("5 commands"));
+        assertThat(resources.format(Locale.GERMAN, "count", 1234), equalTo("1.234 Befehle"));
+    }
+
+    @Test
+    public void testFollowsDefaultLocale() throws Exception {
+        BundleResourceProvider resources = new BundleResourceProvider(
+                BundleResourceProviderTest.class.getName() + "$Messages", BundleResourceProviderTest.class.getClassLoader());
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.ENGLISH);
+            assertThat(resources.getLocale(), equalTo(Locale.ENGLISH));
+            assertThat(resources.getString("greeting"), equalTo("Hello"));
+
+            Locale.setDefault(Locale.GERMAN);
+            assertThat(resources.getLocale(), equalTo(Locale.GERMAN));
+            assertThat(resources.getString("greeting"), equalTo("Hallo"));
+            assertThat(resources.getString(new Namespace(), "greeting"), equalTo("Hallo"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    public static class Messages extends ListResourceBundle {
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][] {
+                    {"greeting", "Hello"},
+                    {"farewell", "Goodbye"},
+                    {"count", "{0,number,integer} commands"},
+            };
+        }
+    }
+
+    public static class Messages_de extends ListResourceBundle {
+        @Override
+        protected Object[][] getContents() {
+            return new Object[][] {
+                    {"greeting", "Hallo"},
+                    {"count", "{0,number,integer} Befehle"},
+            };
+        }
+    }
+
+}